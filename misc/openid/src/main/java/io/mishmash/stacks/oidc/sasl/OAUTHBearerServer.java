@@ -40,7 +40,7 @@ public class OAUTHBearerServer implements SaslServer {
     private boolean checksFailed = false;
     private OIDCClientPrincipal oidc;
     private String name;
-    private SignedJWT jwt;
+    private String authorizationId;
 
     public OAUTHBearerServer(
             final OIDCClientPrincipal oidcClient,
@@ -82,28 +82,49 @@ public class OAUTHBearerServer implements SaslServer {
             checksFailed = true;
         }
 
-        SignedJWT receivedJWT = null;
+        VerifiedTokenCache cache = VerifiedTokenCache.getInstance();
+        String authzId = checksFailed
+                ? null
+                : cache.get(oidc, jwtStr);
 
-        try {
-            receivedJWT = checksFailed
-                    ? null
-                    : SignedJWT.parse(jwtStr);
-        } catch (ParseException e) {
-            checksFailed = true;
+        if (!checksFailed && authzId == null) {
+            authzId = verify(cache, jwtStr);
+            checksFailed = authzId == null;
         }
 
-        checksFailed = checksFailed || !oidc.verify(receivedJWT);
         if (checksFailed) {
             return "{\"status\":\"invalid_token\"}"
                     .getBytes(StandardCharsets.UTF_8);
         } else {
             isComplete = true;
-            jwt = receivedJWT;
+            authorizationId = authzId;
 
             return null;
         }
     }
 
+    private String verify(
+            final VerifiedTokenCache cache,
+            final String jwtStr) {
+        long start = System.nanoTime();
+        String authzId = null;
+
+        try {
+            SignedJWT receivedJWT = SignedJWT.parse(jwtStr);
+
+            if (oidc.verify(receivedJWT)) {
+                authzId = authorizationIdOf(receivedJWT);
+                cache.put(oidc, jwtStr, receivedJWT, authzId);
+            }
+        } catch (ParseException | URISyntaxException e) {
+            authzId = null;
+        }
+
+        cache.recordVerification(System.nanoTime() - start, authzId != null);
+
+        return authzId;
+    }
+
     @Override
     public boolean isComplete() {
         return isComplete;
@@ -111,22 +132,23 @@ public class OAUTHBearerServer implements SaslServer {
 
     @Override
     public String getAuthorizationID() {
-        try {
-            JWTClaimsSet claims = jwt.getJWTClaimsSet();
-
-            boolean isUMA = oidc.isUMA()
-                    && claims.getClaim("authorization") != null;
-            String azp = claims.getClaimAsString("azp");
-            String issuer = URIUtils.getIssuer(
-                    new URI(claims.getIssuer())).get();
-
-            return String.format("%s://%s@%s",
-                    isUMA ? "uma2" : "oidc",
-                    azp,
-                    issuer);
-        } catch (ParseException | URISyntaxException e) {
-            throw new RuntimeException(e);
-        }
+        return authorizationId;
+    }
+
+    private String authorizationIdOf(final SignedJWT verified)
+            throws ParseException, URISyntaxException {
+        JWTClaimsSet claims = verified.getJWTClaimsSet();
+
+        boolean isUMA = oidc.isUMA()
+                && claims.getClaim("authorization") != null;
+        String azp = claims.getClaimAsString("azp");
+        String issuer = URIUtils.getIssuer(
+                new URI(claims.getIssuer())).get();
+
+        return String.format("%s://%s@%s",
+                isUMA ? "uma2" : "oidc",
+                azp,
+                issuer);
     }
 
     @Override
@@ -162,7 +184,7 @@ public class OAUTHBearerServer implements SaslServer {
     public void dispose() throws SaslException {
         isComplete = false;
         oidc = null;
-        jwt = null;
+        authorizationId = null;
     }
 
     private class HdrsIterator implements Iterator<ByteBuffer> {
@@ -0,0 +1,284 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.oidc.sasl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nimbusds.jwt.SignedJWT;
+
+import io.mishmash.stacks.oidc.login.OIDCClientPrincipal;
+
+/**
+ * Remembers bearer tokens that already passed verification, so that
+ * sessions presenting the same token skip the signature check (or
+ * the introspection round trip).
+ *
+ * Tokens are kept as SHA-256 digests, mapped to the authorization id
+ * they were verified for. An entry is valid until the token expires,
+ * but never longer than the configured maximum age, and only for the
+ * same verifying {@link OIDCClientPrincipal}.
+ *
+ * One cache is shared by all {@link OAUTHBearerServer}s in the JVM,
+ * its size and age are set by the {@link #PROP_MAX_ENTRIES} and
+ * {@link #PROP_MAX_AGE_SECONDS} system properties. A size of 0 turns
+ * caching off, verifications are still counted.
+ *
+ * The cache does not register itself over JMX, whatever hosts the SASL
+ * servers registers the shared cache under {@link #OBJECT_NAME} for as
+ * long as it runs.
+ */
+public final class VerifiedTokenCache implements VerifiedTokenCacheMXBean {
+
+    public static final String PROP_MAX_ENTRIES =
+            "io.mishmash.stacks.oidc.tokenCache.maxEntries";
+    public static final String PROP_MAX_AGE_SECONDS =
+            "io.mishmash.stacks.oidc.tokenCache.maxAgeSeconds";
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(5);
+
+    public static final String OBJECT_NAME =
+            "io.mishmash.stacks:type=OidcTokenCache";
+
+    private static final VerifiedTokenCache INSTANCE = new VerifiedTokenCache(
+            Integer.getInteger(PROP_MAX_ENTRIES, DEFAULT_MAX_ENTRIES),
+            Duration.ofSeconds(Long.getLong(
+                    PROP_MAX_AGE_SECONDS,
+                    DEFAULT_MAX_AGE.toSeconds())));
+
+    private record Entry(
+            OIDCClientPrincipal verifier,
+            String authorizationId,
+            long expiresMillis) {
+    }
+
+    private final int maxEntries;
+    private final long maxAgeMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder verificationFailures = new LongAdder();
+    private final LongAdder verificationNanos = new LongAdder();
+
+    /**
+     * Create a separate cache.
+     *
+     * @param maxCachedTokens - how many tokens to keep, 0 disables caching
+     * @param maxAge - the longest time to trust a verification
+     */
+    public VerifiedTokenCache(
+            final int maxCachedTokens,
+            final Duration maxAge) {
+        this.maxEntries = Math.max(0, maxCachedTokens);
+        this.maxAgeMillis = maxAge.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the cache shared by all SASL servers in this JVM.
+     *
+     * @return the shared cache
+     */
+    public static VerifiedTokenCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Look up a token verified earlier.
+     *
+     * @param verifier - the principal that is about to verify the token
+     * @param token - the serialized token
+     * @return the authorization id the token was verified for, or null
+     */
+    public String get(
+            final OIDCClientPrincipal verifier,
+            final String token) {
+        if (maxEntries == 0) {
+            misses.increment();
+
+            return null;
+        }
+
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        Entry e;
+
+        synchronized (entries) {
+            e = entries.get(key);
+
+            if (e != null && e.expiresMillis() <= now) {
+                entries.remove(key);
+                e = null;
+            }
+        }
+
+        if (e == null || e.verifier() != verifier) {
+            misses.increment();
+
+            return null;
+        }
+
+        hits.increment();
+
+        return e.authorizationId();
+    }
+
+    /**
+     * Remember a token that passed verification.
+     *
+     * @param verifier - the principal that verified the token
+     * @param token - the serialized token
+     * @param jwt - the parsed token, its expiry bounds the entry
+     * @param authorizationId - the authorization id of the token
+     */
+    public void put(
+            final OIDCClientPrincipal verifier,
+            final String token,
+            final SignedJWT jwt,
+            final String authorizationId) {
+        if (maxEntries == 0) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long expires = now + maxAgeMillis;
+
+        try {
+            Date exp = jwt.getJWTClaimsSet().getExpirationTime();
+
+            if (exp != null) {
+                expires = Math.min(expires, exp.getTime());
+            }
+        } catch (ParseException e) {
+            return;
+        }
+
+        if (expires <= now) {
+            return;
+        }
+
+        Entry e = new Entry(verifier, authorizationId, expires);
+        String key = digest(token);
+
+        synchronized (entries) {
+            entries.put(key, e);
+        }
+    }
+
+    /**
+     * Account for a full verification of a token.
+     *
+     * @param nanos - how long the verification took
+     * @param success - if the token was accepted
+     */
+    public void recordVerification(final long nanos, final boolean success) {
+        verifications.increment();
+        verificationNanos.add(nanos);
+
+        if (!success) {
+            verificationFailures.increment();
+        }
+    }
+
+    /**
+     * Drop all cached tokens, counters are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxEntries;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public long getVerifications() {
+        return verifications.sum();
+    }
+
+    @Override
+    public long getVerificationFailures() {
+        return verificationFailures.sum();
+    }
+
+    @Override
+    public double getAvgVerificationMillis() {
+        long n = verifications.sum();
+
+        return n == 0 ? 0.0 : verificationNanos.sum() / 1_000_000.0 / n;
+    }
+
+    private static String digest(final String token) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256")
+                        .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            /* every Java platform is required to support SHA-256 */
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.oidc.sasl;
+
+/**
+ * Management view of the {@link VerifiedTokenCache}.
+ */
+public interface VerifiedTokenCacheMXBean {
+
+    /**
+     * @return the number of tokens currently cached
+     */
+    int getSize();
+
+    /**
+     * @return the most tokens kept, 0 when caching is off
+     */
+    int getMaxSize();
+
+    /**
+     * @return the number of tokens accepted from the cache
+     */
+    long getHits();
+
+    /**
+     * @return the number of tokens not found in the cache
+     */
+    long getMisses();
+
+    /**
+     * @return hits divided by all lookups
+     */
+    double getHitRatio();
+
+    /**
+     * @return the number of full token verifications
+     */
+    long getVerifications();
+
+    /**
+     * @return the number of full verifications that rejected the token
+     */
+    long getVerificationFailures();
+
+    /**
+     * @return the average time of a full verification
+     */
+    double getAvgVerificationMillis();
+}
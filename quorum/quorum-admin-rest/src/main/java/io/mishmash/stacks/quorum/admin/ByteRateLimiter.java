@@ -0,0 +1,90 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.admin;
+
+import java.io.InterruptedIOException;
+
+/**
+ * A blocking token bucket of bytes per second, shared by all exports
+ * of a server. At most one second worth of bytes can accumulate.
+ */
+final class ByteRateLimiter {
+
+    private final long bytesPerSecond;
+    private long available;
+    private long lastRefill = System.nanoTime();
+
+    ByteRateLimiter(final long rate) {
+        this.bytesPerSecond = rate;
+        this.available = rate;
+    }
+
+    boolean isUnlimited() {
+        return bytesPerSecond <= 0;
+    }
+
+    /**
+     * Take up to the requested number of bytes, waiting until at least
+     * one chunk is available.
+     *
+     * @param wanted - how many bytes the caller would like to send
+     * @return how many bytes the caller may send now, at least 1
+     */
+    synchronized int acquire(final int wanted) throws InterruptedIOException {
+        if (isUnlimited()) {
+            return wanted;
+        }
+
+        /* never wait for more than a tenth of a second worth */
+        long chunk = Math.max(1, Math.min(wanted, bytesPerSecond / 10));
+
+        try {
+            while (true) {
+                refill();
+
+                if (available >= chunk) {
+                    available -= chunk;
+
+                    return (int) chunk;
+                }
+
+                long waitNanos = (chunk - available) * 1_000_000_000L
+                        / bytesPerSecond;
+
+                wait(Math.max(1, waitNanos / 1_000_000));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Export interrupted");
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        /* a full bucket takes a second, do not overflow on long idles */
+        long elapsed = Math.min(now - lastRefill, 1_000_000_000L);
+        long added = elapsed * bytesPerSecond / 1_000_000_000L;
+
+        if (added > 0) {
+            available = Math.min(bytesPerSecond, available + added);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.admin;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+
+/**
+ * Compresses another stream in gzip format while it is being read,
+ * the pull-based counterpart of {@link java.util.zip.GZIPOutputStream}.
+ */
+final class GzipCompressingStream extends FilterInputStream {
+
+    private static final byte[] HEADER = {
+        0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CRC32 crc = new CRC32();
+    private final Deflater deflater;
+    private long inputSize;
+    private byte[] pending = HEADER;
+    private int pendingPos;
+    private boolean trailerSent;
+
+    GzipCompressingStream(final InputStream source, final int level) {
+        this(source, new Deflater(level, true));
+    }
+
+    private GzipCompressingStream(
+            final InputStream source,
+            final Deflater def) {
+        super(null);
+        this.deflater = def;
+        this.in = new DeflaterInputStream(
+                new Checksummed(source), def, BUFFER_SIZE);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+
+        return n < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len)
+            throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        if (pending != null) {
+            int n = Math.min(len, pending.length - pendingPos);
+
+            System.arraycopy(pending, pendingPos, b, off, n);
+            pendingPos += n;
+
+            if (pendingPos == pending.length) {
+                pending = null;
+            }
+
+            return n;
+        }
+
+        int n = in.read(b, off, len);
+
+        if (n >= 0) {
+            return n;
+        }
+
+        if (trailerSent) {
+            return -1;
+        }
+
+        trailerSent = true;
+        pending = trailer();
+        pendingPos = 0;
+
+        return read(b, off, len);
+    }
+
+    @Override
+    public int available() {
+        return 0;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] trailer() {
+        long c = crc.getValue();
+        byte[] t = new byte[8];
+
+        for (int i = 0; i < 4; i++) {
+            t[i] = (byte) (c >>> (8 * i));
+            t[4 + i] = (byte) (inputSize >>> (8 * i));
+        }
+
+        return t;
+    }
+
+    /* tracks the CRC and size of the uncompressed data */
+    private final class Checksummed extends FilterInputStream {
+
+        private Checksummed(final InputStream source) {
+            super(source);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+
+            if (b >= 0) {
+                crc.update(b);
+                inputSize++;
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len)
+                throws IOException {
+            int n = super.read(b, off, len);
+
+            if (n > 0) {
+                crc.update(b, off, n);
+                inputSize += n;
+            }
+
+            return n;
+        }
+    }
+}
@@ -0,0 +1,449 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.admin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.apache.zookeeper.ZooDefs;
+import org.apache.zookeeper.server.ZooKeeperServer;
+import org.apache.zookeeper.server.admin.AuthRequest;
+import org.apache.zookeeper.server.admin.CommandResponse;
+import org.apache.zookeeper.server.admin.Commands;
+import org.apache.zookeeper.server.admin.GetCommand;
+import org.apache.zookeeper.server.persistence.FileSnap;
+import org.apache.zookeeper.server.persistence.FileTxnLog;
+import org.apache.zookeeper.server.persistence.FileTxnSnapLog;
+import org.apache.zookeeper.server.persistence.Util;
+
+/**
+ * An admin server command that streams the latest snapshot of a server,
+ * followed by the transaction logs written after it, as a tar archive.
+ * The result can be restored by unpacking it into empty snapshot and
+ * log directories.
+ *
+ * The command is off by default, it is turned on by the
+ * {@value #PROP_ENABLED} system property. Exports are throttled to
+ * {@value #PROP_MAX_BYTES_PER_SECOND} bytes per second in total, and at
+ * most {@value #PROP_MAX_CONCURRENT} of them run at the same time, so
+ * that a backup does not compete with the server for disk bandwidth.
+ *
+ * Query parameters:
+ * <ul>
+ *   <li>{@value #PARAM_COMPRESS} - {@code gzip} to compress the archive</li>
+ *   <li>{@value #PARAM_LOGS} - {@code false} to send only the snapshot</li>
+ *   <li>{@value #PARAM_EXPORT} and {@value #PARAM_OFFSET} - to resume an
+ *       interrupted export, pass the id it was returned with and the
+ *       number of archive bytes already received. Offsets always count
+ *       uncompressed bytes</li>
+ * </ul>
+ *
+ * An export can only be resumed while the files it was started with are
+ * all still there, with the same sizes. Otherwise the archive would not
+ * be the same and the command fails with 410 Gone.
+ *
+ * Embedders add the command with {@link #register()}, under OSGi the
+ * quorum-admin-rest-osgi bundle does it when it starts.
+ */
+public class SnapshotExportCommand extends GetCommand {
+
+    public static final String PROP_ENABLED = "zookeeper.admin.export.enabled";
+    public static final String PROP_MAX_BYTES_PER_SECOND =
+            "zookeeper.admin.export.maxBytesPerSecond";
+    public static final String PROP_MAX_CONCURRENT =
+            "zookeeper.admin.export.maxConcurrent";
+
+    public static final long DEFAULT_MAX_BYTES_PER_SECOND = 32L * 1024 * 1024;
+
+    public static final String PARAM_EXPORT = "export";
+    public static final String PARAM_OFFSET = "offset";
+    public static final String PARAM_COMPRESS = "compress";
+    public static final String PARAM_LOGS = "logs";
+
+    public static final String HEADER_EXPORT_ID = "X-Quorum-Export-Id";
+    public static final String HEADER_EXPORT_LENGTH = "X-Quorum-Export-Length";
+    public static final String HEADER_EXPORT_OFFSET = "X-Quorum-Export-Offset";
+    public static final String HEADER_SNAPSHOT_ZXID = "X-Quorum-Snapshot-Zxid";
+
+    private static final Logger LOG =
+            Logger.getLogger(SnapshotExportCommand.class.getName());
+
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+    private static final long NO_LOGS = -1L;
+
+    private static boolean registered = false;
+
+    private final ByteRateLimiter limiter = new ByteRateLimiter(Long.getLong(
+            PROP_MAX_BYTES_PER_SECOND,
+            DEFAULT_MAX_BYTES_PER_SECOND));
+    private final Semaphore slots = new Semaphore(
+            Math.max(1, Integer.getInteger(PROP_MAX_CONCURRENT, 1)));
+
+    /* the files of an export and the id to resume it with */
+    private record Plan(
+            long snapshotZxid,
+            List<TarExportStream.Entry> entries,
+            ExportId id) {
+    }
+
+    /*
+     * Where the export ends, and a checksum of the names of its files
+     * with the archive length, to tell if a resumed export still
+     * matches what the first request sent.
+     */
+    private record ExportId(
+            long snapshotZxid,
+            long lastLogZxid,
+            long lastLogSize,
+            long files,
+            long length) {
+
+        static ExportId of(
+                final long snapZxid,
+                final long lastLogZxid,
+                final long lastLogSize,
+                final List<TarExportStream.Entry> entries) {
+            CRC32 names = new CRC32();
+
+            for (TarExportStream.Entry e : entries) {
+                names.update(e.name().getBytes(StandardCharsets.US_ASCII));
+                names.update('\n');
+            }
+
+            return new ExportId(
+                    snapZxid,
+                    lastLogZxid,
+                    lastLogSize,
+                    names.getValue(),
+                    TarExportStream.length(entries));
+        }
+
+        static ExportId parse(final String id) {
+            String[] parts = id.split("\\.");
+
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("Invalid export id");
+            }
+
+            try {
+                return new ExportId(
+                        Long.parseUnsignedLong(parts[0], 16),
+                        Long.parseUnsignedLong(parts[1], 16),
+                        Long.parseLong(parts[2]),
+                        Long.parseLong(parts[3], 16),
+                        Long.parseLong(parts[4]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid export id");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return Long.toHexString(snapshotZxid)
+                    + "." + Long.toHexString(lastLogZxid)
+                    + "." + lastLogSize
+                    + "." + Long.toHexString(files)
+                    + "." + length;
+        }
+    }
+
+    public SnapshotExportCommand() {
+        super(Arrays.asList("export", "exp"),
+                true,
+                new AuthRequest(ZooDefs.Perms.ALL, "/"));
+    }
+
+    /**
+     * Add the command to the ones served by the admin server. Only the
+     * first call has an effect, registered commands cannot be removed.
+     */
+    public static synchronized void register() {
+        if (!registered) {
+            Commands.registerCommand(new SnapshotExportCommand());
+            registered = true;
+        }
+    }
+
+    @Override
+    public CommandResponse runGet(
+            final ZooKeeperServer zkServer,
+            final Map<String, String> kwargs) {
+        CommandResponse response = initializeResponse();
+
+        if (!Boolean.getBoolean(PROP_ENABLED)) {
+            return error(response,
+                    HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                    "Export is disabled, set " + PROP_ENABLED + "=true");
+        }
+
+        String exportId = kwargs.get(PARAM_EXPORT);
+        String compress = kwargs.getOrDefault(PARAM_COMPRESS, "none")
+                .toLowerCase(Locale.ROOT);
+        boolean withLogs = !"false".equalsIgnoreCase(kwargs.get(PARAM_LOGS));
+        long offset;
+
+        try {
+            offset = Long.parseLong(kwargs.getOrDefault(PARAM_OFFSET, "0"));
+        } catch (NumberFormatException e) {
+            return error(response,
+                    HttpServletResponse.SC_BAD_REQUEST,
+                    "Invalid offset");
+        }
+
+        if (!"none".equals(compress) && !"gzip".equals(compress)) {
+            return error(response,
+                    HttpServletResponse.SC_BAD_REQUEST,
+                    "Unsupported compression: " + compress);
+        }
+
+        if (offset != 0 && exportId == null) {
+            return error(response,
+                    HttpServletResponse.SC_BAD_REQUEST,
+                    "Resuming needs the " + PARAM_EXPORT + " id");
+        }
+
+        if (!slots.tryAcquire()) {
+            return error(response,
+                    SC_TOO_MANY_REQUESTS,
+                    "Too many exports are running");
+        }
+
+        boolean streaming = false;
+
+        try {
+            FileTxnSnapLog snapLog = zkServer.getTxnLogFactory();
+            Plan plan = exportId == null
+                    ? latest(snapLog, withLogs)
+                    : resume(snapLog, ExportId.parse(exportId));
+
+            if (plan == null) {
+                return error(response,
+                        exportId == null
+                            ? HttpServletResponse.SC_NOT_FOUND
+                            : HttpServletResponse.SC_GONE,
+                        exportId == null
+                            ? "No snapshot to export"
+                            : "Export " + exportId + " is no longer available");
+            }
+
+            TarExportStream tar = new TarExportStream(
+                    plan.entries(),
+                    offset,
+                    limiter,
+                    slots::release);
+            InputStream body = "gzip".equals(compress)
+                    ? new GzipCompressingStream(tar, Deflater.BEST_SPEED)
+                    : tar;
+
+            streaming = true;
+
+            response.addHeader(HEADER_EXPORT_ID, plan.id().toString());
+            response.addHeader(HEADER_EXPORT_LENGTH,
+                    Long.toString(tar.length()));
+            response.addHeader(HEADER_EXPORT_OFFSET, Long.toString(offset));
+            response.addHeader(HEADER_SNAPSHOT_ZXID,
+                    "0x" + Long.toHexString(plan.snapshotZxid()));
+            response.addHeader("Content-Disposition", String.format(
+                    "attachment; filename=\"quorum-%x.tar%s\"",
+                    plan.snapshotZxid(),
+                    "gzip".equals(compress) ? ".gz" : ""));
+            response.setInputStream(body);
+
+            LOG.info("Exporting " + plan.entries().size() + " files as "
+                    + plan.id() + " from offset " + offset);
+
+            return response;
+        } catch (IllegalArgumentException e) {
+            return error(response,
+                    HttpServletResponse.SC_BAD_REQUEST,
+                    e.getMessage());
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to start an export", e);
+
+            return error(response,
+                    HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                    "Failed to read the data directories");
+        } finally {
+            if (!streaming) {
+                slots.release();
+            }
+        }
+    }
+
+    private static Plan latest(
+            final FileTxnSnapLog snapLog,
+            final boolean withLogs) throws IOException {
+        File snapshot = snapLog.findMostRecentSnapshot();
+
+        if (snapshot == null) {
+            return null;
+        }
+
+        long snapZxid = Util.getZxidFromName(
+                snapshot.getName(),
+                FileSnap.SNAPSHOT_FILE_PREFIX);
+        File[] logs = withLogs
+                ? FileTxnLog.getLogFiles(
+                        listFiles(snapLog.getDataLogDir()),
+                        snapZxid)
+                : new File[0];
+        List<TarExportStream.Entry> entries = new ArrayList<>();
+
+        entries.add(entry("snapshot", snapshot, snapshot.length(), snapshot));
+
+        long lastLogZxid = NO_LOGS;
+        long lastLogSize = 0;
+
+        for (File log : logs) {
+            lastLogZxid = Util.getZxidFromName(
+                    log.getName(),
+                    FileTxnLog.LOG_FILE_PREFIX);
+            lastLogSize = log.length();
+            entries.add(entry("log", log, lastLogSize, snapshot));
+        }
+
+        return new Plan(
+                snapZxid,
+                entries,
+                ExportId.of(snapZxid, lastLogZxid, lastLogSize, entries));
+    }
+
+    private static Plan resume(
+            final FileTxnSnapLog snapLog,
+            final ExportId exportId) {
+        long snapZxid = exportId.snapshotZxid();
+        long lastLogZxid = exportId.lastLogZxid();
+        long lastLogSize = exportId.lastLogSize();
+        File snapshot = null;
+
+        for (File f : listFiles(snapLog.getSnapDir())) {
+            if (f.getName().startsWith(FileSnap.SNAPSHOT_FILE_PREFIX + ".")
+                    && Util.getZxidFromName(
+                            f.getName(),
+                            FileSnap.SNAPSHOT_FILE_PREFIX) == snapZxid) {
+                snapshot = f;
+                break;
+            }
+        }
+
+        if (snapshot == null) {
+            return null;
+        }
+
+        List<TarExportStream.Entry> entries = new ArrayList<>();
+
+        entries.add(entry("snapshot", snapshot, snapshot.length(), snapshot));
+
+        if (lastLogZxid != NO_LOGS) {
+            boolean foundLast = false;
+
+            /*
+             * Logs before the last one were already rolled and do not
+             * change, the last one could have grown since, send only
+             * what the first request saw.
+             */
+            for (File log : FileTxnLog.getLogFiles(
+                    listFiles(snapLog.getDataLogDir()),
+                    snapZxid)) {
+                long zxid = Util.getZxidFromName(
+                        log.getName(),
+                        FileTxnLog.LOG_FILE_PREFIX);
+
+                if (zxid == lastLogZxid) {
+                    if (log.length() < lastLogSize) {
+                        return null;
+                    }
+
+                    entries.add(entry("log", log, lastLogSize, snapshot));
+                    foundLast = true;
+                    break;
+                }
+
+                entries.add(entry("log", log, log.length(), snapshot));
+            }
+
+            if (!foundLast) {
+                return null;
+            }
+        }
+
+        /*
+         * A purged or added log, or a file that changed size, makes a
+         * different archive, the offset would point into other bytes.
+         */
+        ExportId rebuilt = ExportId.of(
+                snapZxid,
+                lastLogZxid,
+                lastLogSize,
+                entries);
+
+        if (!rebuilt.equals(exportId)) {
+            return null;
+        }
+
+        return new Plan(snapZxid, entries, rebuilt);
+    }
+
+    private static TarExportStream.Entry entry(
+            final String dir,
+            final File file,
+            final long size,
+            final File snapshot) {
+        /*
+         * The current log keeps changing, all entries are stamped with
+         * the time of the snapshot to keep the headers of a resumed
+         * export identical.
+         */
+        return new TarExportStream.Entry(
+                dir + "/" + file.getName(),
+                file,
+                size,
+                snapshot.lastModified());
+    }
+
+    private static File[] listFiles(final File dir) {
+        File[] files = dir == null ? null : dir.listFiles();
+
+        return files == null ? new File[0] : files;
+    }
+
+    private static CommandResponse error(
+            final CommandResponse response,
+            final int status,
+            final String message) {
+        response.setStatusCode(status);
+        response.put(CommandResponse.KEY_ERROR, message);
+
+        return response;
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.admin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Presents a list of files as an uncompressed tar archive, starting
+ * at a given offset so that an interrupted download can be resumed.
+ *
+ * All files are opened up front, so a snapshot or a log purged while
+ * the export runs is still readable until the stream is closed. File
+ * contents are read with positional channel reads directly into the
+ * caller's buffer.
+ */
+final class TarExportStream extends InputStream {
+
+    private static final int BLOCK = 512;
+
+    /* one part of the archive - a header, a file region or padding */
+    private record Segment(
+            long start,
+            long length,
+            byte[] bytes,
+            FileChannel channel) {
+
+        long end() {
+            return start + length;
+        }
+    }
+
+    /**
+     * A file to put in the archive.
+     *
+     * @param name - the name of the entry
+     * @param file - the file to read
+     * @param size - how many bytes of the file to export
+     * @param modified - the modification time to record, in millis
+     */
+    record Entry(String name, File file, long size, long modified) {
+    }
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final List<FileChannel> channels = new ArrayList<>();
+    private final ByteRateLimiter limiter;
+    private final Runnable onClose;
+    private final long length;
+    private long position;
+    private int current;
+    private boolean closed;
+
+    TarExportStream(
+            final List<Entry> entries,
+            final long offset,
+            final ByteRateLimiter rateLimiter,
+            final Runnable closeAction) throws IOException {
+        this.limiter = rateLimiter;
+        this.onClose = closeAction;
+
+        long pos = 0;
+
+        try {
+            for (Entry e : entries) {
+                FileChannel ch = FileChannel.open(
+                        e.file().toPath(),
+                        StandardOpenOption.READ);
+
+                channels.add(ch);
+
+                if (ch.size() < e.size()) {
+                    throw new IOException("File " + e.file()
+                            + " is shorter than expected");
+                }
+
+                pos = add(pos, header(e), null);
+                pos = add(pos, e.size(), ch);
+
+                int pad = (int) ((BLOCK - e.size() % BLOCK) % BLOCK);
+
+                if (pad > 0) {
+                    pos = add(pos, new byte[pad], null);
+                }
+            }
+
+            /* end of archive */
+            pos = add(pos, new byte[2 * BLOCK], null);
+        } catch (IOException | RuntimeException e) {
+            closeChannels();
+
+            throw e;
+        }
+
+        this.length = pos;
+
+        if (offset < 0 || offset > length) {
+            closeChannels();
+
+            throw new IllegalArgumentException("Offset " + offset
+                    + " is outside of the export, length is " + length);
+        }
+
+        this.position = offset;
+    }
+
+    long length() {
+        return length;
+    }
+
+    /**
+     * The length a stream of these entries will have, without opening
+     * any of the files.
+     *
+     * @param entries - the files of the archive
+     * @return the archive length, in bytes
+     */
+    static long length(final List<Entry> entries) {
+        long len = 2 * BLOCK;
+
+        for (Entry e : entries) {
+            len += BLOCK + e.size() + (BLOCK - e.size() % BLOCK) % BLOCK;
+        }
+
+        return len;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+
+        return n < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len)
+            throws IOException {
+        if (closed) {
+            throw new IOException("Export stream closed");
+        }
+
+        if (len == 0) {
+            return 0;
+        }
+
+        while (current < segments.size()
+                && segments.get(current).end() <= position) {
+            current++;
+        }
+
+        if (current == segments.size()) {
+            return -1;
+        }
+
+        Segment s = segments.get(current);
+        int n = (int) Math.min(len, s.end() - position);
+
+        n = limiter.acquire(n);
+
+        long rel = position - s.start();
+
+        if (s.bytes() != null) {
+            System.arraycopy(s.bytes(), (int) rel, b, off, n);
+        } else {
+            ByteBuffer dst = ByteBuffer.wrap(b, off, n);
+
+            while (dst.hasRemaining()) {
+                int r = s.channel().read(dst, rel + dst.position() - off);
+
+                if (r < 0) {
+                    throw new IOException("Exported file was truncated");
+                }
+            }
+        }
+
+        position += n;
+
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, length - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            closeChannels();
+            onClose.run();
+        }
+    }
+
+    private void closeChannels() {
+        for (FileChannel ch : channels) {
+            try {
+                ch.close();
+            } catch (IOException e) {
+                /* read-only, nothing to lose */
+            }
+        }
+    }
+
+    private long add(final long start, final byte[] bytes, final FileChannel ch) {
+        segments.add(new Segment(start, bytes.length, bytes, ch));
+
+        return start + bytes.length;
+    }
+
+    private long add(final long start, final long len, final FileChannel ch) {
+        if (len > 0) {
+            segments.add(new Segment(start, len, null, ch));
+        }
+
+        return start + len;
+    }
+
+    private static byte[] header(final Entry e) {
+        byte[] h = new byte[BLOCK];
+        byte[] name = e.name().getBytes(StandardCharsets.US_ASCII);
+
+        if (name.length > 100) {
+            throw new IllegalArgumentException("Name too long: " + e.name());
+        }
+
+        System.arraycopy(name, 0, h, 0, name.length);
+        octal(h, 100, 8, 0644);
+        octal(h, 108, 8, 0);
+        octal(h, 116, 8, 0);
+        size(h, 124, e.size());
+        octal(h, 136, 12, e.modified() / 1000);
+        h[156] = '0';
+        System.arraycopy(
+                "ustar\u000000".getBytes(StandardCharsets.US_ASCII),
+                0, h, 257, 8);
+
+        /* the checksum is computed with its own field set to spaces */
+        for (int i = 148; i < 156; i++) {
+            h[i] = ' ';
+        }
+
+        long sum = 0;
+
+        for (byte x : h) {
+            sum += x & 0xff;
+        }
+
+        octal(h, 148, 7, sum);
+
+        return h;
+    }
+
+    private static void size(final byte[] h, final int at, final long size) {
+        if (size < 077777777777L) {
+            octal(h, at, 12, size);
+        } else {
+            /* base-256, for entries of 8 GiB and more */
+            h[at] = (byte) 0x80;
+
+            for (int i = 0; i < 8; i++) {
+                h[at + 11 - i] = (byte) (size >>> (8 * i));
+            }
+        }
+    }
+
+    private static void octal(
+            final byte[] h,
+            final int at,
+            final int width,
+            final long value) {
+        String s = Long.toOctalString(value);
+        int digits = width - 1;
+
+        for (int i = 0; i < digits; i++) {
+            int k = s.length() - digits + i;
+
+            h[at + i] = (byte) (k < 0 ? '0' : s.charAt(k));
+        }
+
+        h[at + digits] = 0;
+    }
+}
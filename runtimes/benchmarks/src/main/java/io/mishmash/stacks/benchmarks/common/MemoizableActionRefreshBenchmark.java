@@ -0,0 +1,161 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+
+package io.mishmash.stacks.benchmarks.common;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.mishmash.stacks.common.ExpiringMemoizableAction;
+
+/*
+ * Many threads reading a memo that keeps expiring, the way the
+ * Azure and OIDC memos are read on a busy node.
+ *
+ * The refresh completes on another thread after a fixed delay,
+ * like an IMDS or JWKS fetch would. Every prepareAction() call
+ * is counted as a refresh, one that starts while another is still
+ * running is also counted as a duplicate - there should be none.
+ *
+ * Compare the latency of the 1 and 64 thread runs, it should stay
+ * flat as only one of the contending threads runs the refresh and
+ * the rest wait for it (or get the stale value).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemoizableActionRefreshBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Memo extends ExpiringMemoizableAction<Long> {
+
+        @Param({"1"})
+        private long maxAgeMillis;
+        @Param({"200"})
+        private long refreshMicros;
+        @Param({"false", "true"})
+        private boolean serveStale;
+
+        private final AtomicInteger running = new AtomicInteger();
+        private Executor fetcher;
+        private volatile Long value;
+        private long fetched;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            setMaxAge(Duration.ofMillis(maxAgeMillis));
+            setStaleWhileRevalidate(serveStale);
+            fetcher = CompletableFuture.delayedExecutor(
+                    refreshMicros,
+                    TimeUnit.MICROSECONDS);
+        }
+
+        @Override
+        protected CompletableFuture<Long> prepareAction() {
+            Counters counters = Counters.CURRENT.get();
+            if (counters != null) {
+                counters.refreshes++;
+                if (running.getAndIncrement() > 0) {
+                    counters.duplicates++;
+                }
+            } else {
+                running.getAndIncrement();
+            }
+
+            return CompletableFuture.supplyAsync(() -> {
+                /*
+                 * Done before the returned future completes, so
+                 * the next refresh can't see this one as running.
+                 */
+                running.decrementAndGet();
+
+                return ++fetched;
+            }, fetcher);
+        }
+
+        @Override
+        protected void memoize(final Long item) {
+            value = item;
+        }
+
+        @Override
+        protected Long getMemoized() {
+            return value;
+        }
+
+        @Override
+        protected boolean hasValue() {
+            return value != null;
+        }
+    }
+
+    /*
+     * Refreshes are started by whichever benchmark thread wins the
+     * race for an expired memo, so the counters are per thread and
+     * JMH sums them up.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        static final ThreadLocal<Counters> CURRENT = new ThreadLocal<>();
+
+        public long refreshes;
+        public long duplicates;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            refreshes = 0;
+            duplicates = 0;
+            CURRENT.set(this);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long uncontended(final Memo memo, final Counters counters) {
+        return memo.uncheckedGet();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Long contended(final Memo memo, final Counters counters) {
+        return memo.uncheckedGet();
+    }
+}
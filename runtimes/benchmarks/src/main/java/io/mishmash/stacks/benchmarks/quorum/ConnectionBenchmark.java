@@ -0,0 +1,797 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.benchmarks.quorum;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.apache.jute.BinaryOutputArchive;
+import org.apache.jute.Record;
+import org.apache.zookeeper.ZooDefs.OpCode;
+import org.apache.zookeeper.proto.ConnectRequest;
+import org.apache.zookeeper.proto.RequestHeader;
+
+import io.mishmash.stacks.quorum.server.osgi.impl.ServerCnxnConfig;
+import io.netty.channel.epoll.Epoll;
+
+/**
+ * Opens a large number of client sessions on an ensemble and measures
+ * how fast the servers establish them and how well they hold them.
+ *
+ * The sessions are not {@code ZooKeeper} clients, each of those
+ * takes two threads. They are bare connections driven by a single
+ * selector thread, each sending the session handshake and then only
+ * pings, like an idle client would.
+ *
+ * What is run is picked by the {@code mode} option:
+ * <ul>
+ *   <li>{@code hold} - open {@code connections} sessions, at most
+ *       {@code inflight} handshakes at a time, then keep them all open
+ *       for {@code duration} seconds. Reports the rate they were
+ *       established at, the handshake latency, the ping round trip
+ *       while all of them are open and, when the servers run in this
+ *       JVM, their threads and heap. This is the default</li>
+ *   <li>{@code churn} - keep {@code connections} connections going,
+ *       each closed as soon as its session is established and another
+ *       one opened in its place, reconnecting to the same session like
+ *       clients in a reconnect storm do. With {@code newSessions=true}
+ *       each connection creates a new session and closes it instead.
+ *       Reports the rate of established sessions and the handshake
+ *       latency over {@code duration} seconds, after {@code warmup}
+ *       seconds</li>
+ *   <li>{@code serve} - run server {@code serverId} of an ensemble
+ *       spread over several JVMs, logging its connections, threads and
+ *       heap every {@code statusSeconds}, until the JVM is stopped</li>
+ * </ul>
+ *
+ * Other options, all given as {@code --name=value}:
+ * <ul>
+ *   <li>{@code servers} - ensemble size, default 3</li>
+ *   <li>{@code connections} - sessions, default 1000</li>
+ *   <li>{@code inflight} - concurrent handshakes in {@code hold} mode,
+ *       default 256</li>
+ *   <li>{@code duration} - measured seconds, default 30</li>
+ *   <li>{@code warmup} - seconds before measuring churn, default 5</li>
+ *   <li>{@code sessionTimeout} - requested session timeout in
+ *       milliseconds, default 10000</li>
+ *   <li>{@code cnxnFactory}, {@code connectionBeans} and
+ *       {@code backlog} - the quorum server connection settings, as in
+ *       the {@code quorumServerCnxn} configuration</li>
+ *   <li>{@code connect} - the client addresses of an ensemble started
+ *       elsewhere, instead of one in this JVM</li>
+ *   <li>{@code basePort} - the first port of an ensemble spread over
+ *       several JVMs, default 21810, see {@link LocalEnsemble}</li>
+ *   <li>{@code output} - file for the JSON report, default stdout</li>
+ * </ul>
+ *
+ * Sessions are spread evenly over the servers. Latencies are reported
+ * in microseconds.
+ */
+public final class ConnectionBenchmark {
+
+    private static final Logger LOG =
+            Logger.getLogger(ConnectionBenchmark.class.getName());
+
+    private static final int PING_XID = -2;
+    private static final int CLOSE_XID = 1;
+
+    private enum State {
+        CONNECTING,
+        HANDSHAKE,
+        OPEN,
+        CLOSING,
+        CLOSED
+    }
+
+    private final Map<String, String> opts;
+    private final String mode;
+    private final boolean churn;
+    private final boolean newSessions;
+    private final int servers;
+    private final int connections;
+    private final int inflight;
+    private final int sessionTimeout;
+    private final long warmupMillis;
+    private final long durationMillis;
+
+    private final byte[] connectRequest;
+    private final byte[] pingRequest;
+    private final byte[] closeRequest;
+
+    private final LatencyHistogram handshakes = new LatencyHistogram();
+    private final LatencyHistogram pings = new LatencyHistogram();
+    private final List<Session> sessions = new ArrayList<>();
+    private final ArrayDeque<Session> toOpen = new ArrayDeque<>();
+    private final PriorityQueue<Session> pingQueue = new PriorityQueue<>(
+            Comparator.comparingLong(s -> s.nextPing));
+    private Selector selector;
+    private boolean measuring;
+    private boolean pinging;
+    private int pending;
+    private int open;
+    private long established;
+    private long failed;
+    private long rejected;
+    private long dropped;
+
+    private ConnectionBenchmark(final Map<String, String> options)
+            throws IOException {
+        this.opts = options;
+        this.mode = options.getOrDefault("mode", "hold")
+                .toLowerCase(Locale.ROOT);
+        this.churn = "churn".equals(mode);
+        this.newSessions = Boolean.parseBoolean(
+                options.getOrDefault("newSessions", "false"));
+        this.servers = intOpt("servers", 3);
+        this.connections = intOpt("connections", 1000);
+        this.inflight = churn ? connections : intOpt("inflight", 256);
+        this.sessionTimeout = intOpt("sessionTimeout", 10_000);
+        this.warmupMillis = TimeUnit.SECONDS.toMillis(intOpt("warmup", 5));
+        this.durationMillis = TimeUnit.SECONDS.toMillis(intOpt("duration", 30));
+
+        if (!churn && !"hold".equals(mode) && !"serve".equals(mode)) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+
+        if (servers < 1 || connections < 1 || inflight < 1
+                || durationMillis <= 0) {
+            throw new IllegalArgumentException("Invalid benchmark options");
+        }
+
+        this.connectRequest = frame(new ConnectRequest(
+                0, 0, sessionTimeout, 0, new byte[16], false));
+        this.pingRequest = frame(new RequestHeader(PING_XID, OpCode.ping));
+        this.closeRequest = frame(
+                new RequestHeader(CLOSE_XID, OpCode.closeSession));
+    }
+
+    /**
+     * Run a benchmark and print its JSON report, or serve until stopped.
+     *
+     * @param args - options, as {@code --name=value}
+     * @throws Exception - if the ensemble fails or the run is interrupted
+     */
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException(
+                        "Expected --name=value, got: " + arg);
+            }
+
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        ConnectionBenchmark bench = new ConnectionBenchmark(options);
+
+        if ("serve".equals(bench.mode)) {
+            bench.serve();
+
+            return;
+        }
+
+        String report = bench.run();
+        String output = options.get("output");
+
+        if (output == null) {
+            System.out.println(report);
+        } else {
+            Files.writeString(Paths.get(output), report, StandardCharsets.UTF_8);
+        }
+    }
+
+    private String run() throws Exception {
+        String connect = opts.get("connect");
+        LocalEnsemble ensemble = null;
+        Path dataDir = null;
+
+        if (connect == null) {
+            configureServers();
+            System.setProperty("zookeeper.admin.enableServer", "false");
+        }
+
+        try {
+            if (connect == null) {
+                dataDir = Files.createTempDirectory("quorum-bench");
+                ensemble = new LocalEnsemble(
+                        dataDir, servers, intOpt("tickTime", 500));
+                ensemble.start(TimeUnit.SECONDS.toMillis(60));
+                connect = ensemble.getConnectString();
+            }
+
+            String[] addresses = connect.split(",");
+
+            for (int i = 0; i < connections; i++) {
+                String[] hostPort = addresses[i % addresses.length]
+                        .trim()
+                        .split(":");
+                Session s = new Session(new InetSocketAddress(
+                        hostPort[0],
+                        Integer.parseInt(hostPort[1])));
+
+                sessions.add(s);
+                toOpen.add(s);
+            }
+
+            try (Selector sel = Selector.open()) {
+                selector = sel;
+
+                return churn
+                        ? churn(addresses.length)
+                        : hold(ensemble, addresses.length);
+            } finally {
+                for (Session s : sessions) {
+                    close(s);
+                }
+            }
+        } finally {
+            if (ensemble != null) {
+                ensemble.close();
+            }
+
+            if (dataDir != null) {
+                delete(dataDir);
+            }
+        }
+    }
+
+    private String hold(final LocalEnsemble ensemble, final int targets)
+            throws IOException, InterruptedException {
+        long heapBefore = ensemble == null ? 0 : usedHeap();
+        long start = System.nanoTime();
+
+        LOG.info("Opening " + connections + " sessions on "
+                + targets + " servers");
+
+        measuring = true;
+
+        while (!toOpen.isEmpty() || pending > 0) {
+            poll();
+        }
+
+        double rampSeconds = (System.nanoTime() - start) / 1e9;
+        long end = System.currentTimeMillis() + durationMillis;
+
+        LOG.info(open + " sessions open after " + rampSeconds
+                + " seconds, holding them");
+
+        measuring = false;
+        pinging = true;
+
+        while (System.currentTimeMillis() < end) {
+            poll();
+        }
+
+        StringBuilder json = new StringBuilder(1024);
+
+        json.append("{\n");
+        appendSettings(json, ensemble != null, targets);
+        json.append("  \"open\": ").append(open).append(",\n");
+        json.append(String.format(Locale.ROOT,
+                "  \"rampSeconds\": %.1f,%n"
+                    + "  \"establishedPerSecond\": %.1f,%n",
+                rampSeconds,
+                established / rampSeconds));
+        json.append("  \"handshake\": ");
+        appendStats(json, handshakes);
+        json.append(",\n  \"ping\": ");
+        appendStats(json, pings);
+
+        if (ensemble != null) {
+            int alive = ensemble.getNumAliveConnections();
+            long heap = usedHeap() - heapBefore;
+
+            json.append(String.format(Locale.ROOT,
+                    ",%n  \"server\": {\"connections\": %d, \"threads\": %d, "
+                        + "\"heapBytes\": %d, \"heapPerConnection\": %d}",
+                    alive,
+                    ManagementFactory.getThreadMXBean().getThreadCount(),
+                    heap,
+                    alive == 0 ? 0 : heap / alive));
+        }
+
+        json.append("\n}");
+
+        return json.toString();
+    }
+
+    private String churn(final int targets) throws IOException {
+        long measureFrom = System.currentTimeMillis() + warmupMillis;
+        long end = measureFrom + durationMillis;
+        long now;
+
+        LOG.info("Churning " + connections + " sessions on "
+                + targets + " servers");
+
+        while ((now = System.currentTimeMillis()) < end) {
+            measuring = now >= measureFrom;
+            poll();
+        }
+
+        StringBuilder json = new StringBuilder(1024);
+
+        json.append("{\n");
+        appendSettings(json, opts.get("connect") == null, targets);
+        json.append(String.format(Locale.ROOT,
+                "  \"durationSeconds\": %.1f,%n"
+                    + "  \"establishedPerSecond\": %.1f,%n",
+                durationMillis / 1000.0,
+                established * 1000.0 / durationMillis));
+        json.append("  \"handshake\": ");
+        appendStats(json, handshakes);
+        json.append("\n}");
+
+        return json.toString();
+    }
+
+    private void serve() throws Exception {
+        int serverId = intOpt("serverId", 0);
+        int statusSeconds = intOpt("statusSeconds", 10);
+        Path dataDir = Files.createTempDirectory("quorum-bench");
+        LocalEnsemble ensemble = new LocalEnsemble(
+                dataDir,
+                servers,
+                intOpt("tickTime", 500),
+                intOpt("basePort", 21810),
+                serverId);
+
+        configureServers();
+        System.setProperty("zookeeper.admin.enableServer", "false");
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ensemble.close();
+
+            try {
+                delete(dataDir);
+            } catch (IOException e) {
+                /* a temporary directory */
+            }
+        }));
+
+        ensemble.start(TimeUnit.MINUTES.toMillis(2));
+
+        LOG.info("Serving clients at " + ensemble.getConnectString(serverId - 1)
+                + ", the ensemble is " + ensemble.getConnectString());
+
+        int previous = -1;
+        int measuredAt = -1;
+        long heap = 0;
+
+        while (true) {
+            TimeUnit.SECONDS.sleep(statusSeconds);
+
+            int alive = ensemble.getNumAliveConnections();
+
+            /*
+             * collect only once the number of connections settles, not
+             * to stall the server while it is taking them
+             */
+            if (alive == previous && alive != measuredAt) {
+                heap = usedHeap();
+                measuredAt = alive;
+            }
+
+            previous = alive;
+
+            LOG.info(String.format(Locale.ROOT,
+                    "%d connections, %d threads, %d MB heap at %d connections",
+                    alive,
+                    ManagementFactory.getThreadMXBean().getThreadCount(),
+                    heap >> 20,
+                    measuredAt));
+        }
+    }
+
+    private void configureServers() {
+        Map<String, Object> props = new HashMap<>();
+
+        props.put(ServerCnxnConfig.PROP_FACTORY, opts.getOrDefault(
+                "cnxnFactory", ServerCnxnConfig.FACTORY_AUTO));
+        props.put(ServerCnxnConfig.PROP_CONNECTION_BEANS, opts.getOrDefault(
+                "connectionBeans", ServerCnxnConfig.CONNECTION_BEANS_EACH));
+
+        if (opts.containsKey("backlog")) {
+            props.put(ServerCnxnConfig.PROP_BACKLOG, opts.get("backlog"));
+        }
+
+        ServerCnxnConfig.apply(props);
+    }
+
+    private void poll() throws IOException {
+        long now = System.nanoTime();
+        Session s;
+
+        while (pending < inflight && (s = toOpen.poll()) != null) {
+            connect(s);
+        }
+
+        while ((s = pingQueue.peek()) != null && s.nextPing <= now) {
+            pingQueue.poll();
+            ping(s, now);
+        }
+
+        long wait = s == null
+                ? 10
+                : Math.max(1, Math.min(10, (s.nextPing - now) / 1_000_000));
+
+        selector.select(wait);
+
+        for (Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                it.hasNext();) {
+            SelectionKey key = it.next();
+
+            it.remove();
+            s = (Session) key.attachment();
+
+            try {
+                if (!key.isValid()) {
+                    continue;
+                }
+
+                if (key.isConnectable()) {
+                    s.channel.finishConnect();
+                    key.interestOps(SelectionKey.OP_READ);
+                    handshake(s);
+                } else if (key.isReadable()) {
+                    read(s);
+                }
+            } catch (IOException e) {
+                lost(s);
+            }
+        }
+    }
+
+    private void connect(final Session s) {
+        s.state = State.CONNECTING;
+        s.started = System.nanoTime();
+        s.in.clear();
+        pending++;
+
+        try {
+            SocketChannel ch = SocketChannel.open();
+
+            s.channel = ch;
+            ch.configureBlocking(false);
+            ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+            if (ch.connect(s.server)) {
+                ch.register(selector, SelectionKey.OP_READ, s);
+                handshake(s);
+            } else {
+                ch.register(selector, SelectionKey.OP_CONNECT, s);
+            }
+        } catch (IOException e) {
+            lost(s);
+        }
+    }
+
+    private void handshake(final Session s) throws IOException {
+        s.state = State.HANDSHAKE;
+        write(s, s.reconnect == null ? connectRequest : s.reconnect);
+    }
+
+    private void ping(final Session s, final long now) {
+        if (s.state != State.OPEN) {
+            return;
+        }
+
+        /* one ping at a time, skip this one if the last is unanswered */
+        if (s.pingSent == 0) {
+            try {
+                write(s, pingRequest);
+            } catch (IOException e) {
+                lost(s);
+
+                return;
+            }
+
+            s.pingSent = now;
+        }
+
+        s.nextPing = now + s.pingInterval;
+        pingQueue.add(s);
+    }
+
+    private void read(final Session s) throws IOException {
+        ByteBuffer in = s.in;
+
+        if (s.channel.read(in) < 0) {
+            throw new IOException("Closed by the server");
+        }
+
+        in.flip();
+
+        while (s.state != State.CLOSED && in.remaining() >= 4) {
+            int len = in.getInt(in.position());
+
+            if (len < 4 || len > in.capacity() - 4) {
+                throw new IOException("Unexpected response of " + len + " bytes");
+            }
+
+            if (in.remaining() < len + 4) {
+                break;
+            }
+
+            int at = in.position() + 4;
+
+            in.position(at + len);
+            received(s, in, at);
+        }
+
+        in.compact();
+    }
+
+    private void received(final Session s, final ByteBuffer in, final int at)
+            throws IOException {
+        long now = System.nanoTime();
+
+        switch (s.state) {
+        case HANDSHAKE -> {
+            /* protocol version, then the negotiated timeout */
+            int timeout = in.getInt(at + 4);
+
+            pending--;
+
+            if (timeout <= 0) {
+                rejected++;
+                s.reconnect = null;
+                done(s);
+            } else {
+                established(s, in, at, timeout, now);
+            }
+        }
+        case OPEN -> {
+            if (in.getInt(at) == PING_XID && s.pingSent != 0) {
+                if (pinging) {
+                    pings.record((now - s.pingSent) / 1000);
+                }
+
+                s.pingSent = 0;
+            }
+        }
+        case CLOSING -> {
+            if (in.getInt(at) == CLOSE_XID) {
+                done(s);
+            }
+        }
+        default -> {
+            /* nothing else is expected */
+        }
+        }
+    }
+
+    private void established(
+            final Session s,
+            final ByteBuffer in,
+            final int at,
+            final int timeout,
+            final long now) throws IOException {
+        if (measuring) {
+            handshakes.record((now - s.started) / 1000);
+            established++;
+        }
+
+        if (churn && newSessions) {
+            s.state = State.CLOSING;
+            write(s, closeRequest);
+
+            return;
+        }
+
+        if (churn) {
+            if (s.reconnect == null) {
+                /* session id, then the password */
+                byte[] passwd = new byte[in.getInt(at + 16)];
+
+                in.get(at + 20, passwd);
+                s.reconnect = frame(new ConnectRequest(
+                        0, 0, sessionTimeout, in.getLong(at + 8), passwd, false));
+            }
+
+            done(s);
+
+            return;
+        }
+
+        /* a third of the timeout, as the ZooKeeper client does */
+        s.state = State.OPEN;
+        s.pingInterval = TimeUnit.MILLISECONDS.toNanos(timeout) / 3;
+        s.nextPing = now + ThreadLocalRandom.current().nextLong(s.pingInterval);
+        s.pingSent = 0;
+        pingQueue.add(s);
+        open++;
+    }
+
+    private void lost(final Session s) {
+        switch (s.state) {
+        case CONNECTING, HANDSHAKE -> {
+            pending--;
+            failed++;
+        }
+        case OPEN -> {
+            open--;
+            dropped++;
+            pingQueue.remove(s);
+        }
+        default -> {
+            /* closing anyway */
+        }
+        }
+
+        done(s);
+    }
+
+    private void done(final Session s) {
+        close(s);
+        s.state = State.CLOSED;
+
+        if (churn) {
+            toOpen.add(s);
+        }
+    }
+
+    private static void close(final Session s) {
+        if (s.channel != null) {
+            try {
+                s.channel.close();
+            } catch (IOException e) {
+                /* nothing to lose */
+            }
+
+            s.channel = null;
+        }
+    }
+
+    private static void write(final Session s, final byte[] request)
+            throws IOException {
+        ByteBuffer b = ByteBuffer.wrap(request);
+
+        s.channel.write(b);
+
+        if (b.hasRemaining()) {
+            throw new IOException("Socket buffer full");
+        }
+    }
+
+    private void appendSettings(
+            final StringBuilder json,
+            final boolean local,
+            final int targets) {
+        if (local) {
+            ServerCnxnConfig.Settings settings = ServerCnxnConfig.getSettings();
+
+            json.append("  \"cnxnFactory\": \"")
+                .append(ServerCnxnConfig.preferNetty() ? "netty" : "nio")
+                .append("\",\n");
+            json.append("  \"epoll\": ").append(Epoll.isAvailable()).append(",\n");
+            json.append("  \"connectionBeans\": \"")
+                .append(settings.connectionBeans())
+                .append("\",\n");
+        }
+
+        json.append("  \"mode\": \"").append(mode).append("\",\n");
+
+        if (churn) {
+            json.append("  \"newSessions\": ").append(newSessions).append(",\n");
+        }
+
+        json.append("  \"servers\": ").append(targets).append(",\n");
+        json.append("  \"connections\": ").append(connections).append(",\n");
+        json.append("  \"established\": ").append(established).append(",\n");
+        json.append("  \"failed\": ").append(failed).append(",\n");
+        json.append("  \"rejected\": ").append(rejected).append(",\n");
+        json.append("  \"dropped\": ").append(dropped).append(",\n");
+    }
+
+    private static void appendStats(
+            final StringBuilder json,
+            final LatencyHistogram h) {
+        json.append(String.format(Locale.ROOT,
+                "{\"count\": %d, \"latencyMicros\": {\"mean\": %.1f, "
+                    + "\"p50\": %d, \"p99\": %d, \"p999\": %d, \"max\": %d}}",
+                h.count(),
+                h.mean(),
+                h.percentile(50.0),
+                h.percentile(99.0),
+                h.percentile(99.9),
+                h.max()));
+    }
+
+    private static byte[] frame(final Record request) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryOutputArchive archive = BinaryOutputArchive.getArchive(out);
+
+        archive.writeInt(-1, "len");
+        request.serialize(archive, "request");
+
+        byte[] bytes = out.toByteArray();
+
+        ByteBuffer.wrap(bytes).putInt(0, bytes.length - 4);
+
+        return bytes;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private int intOpt(final String name, final int def) {
+        String v = opts.get(name);
+
+        return v == null ? def : Integer.parseInt(v.trim());
+    }
+
+    private static void delete(final Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private static final class Session {
+
+        private final InetSocketAddress server;
+        /* responses are small and come one at a time */
+        private final ByteBuffer in = ByteBuffer.allocate(64);
+        private SocketChannel channel;
+        private State state = State.CLOSED;
+        private long started;
+        private long pingInterval;
+        private long nextPing;
+        private long pingSent;
+        /* the request to reconnect to the session, once it is created */
+        private byte[] reconnect;
+
+        private Session(final InetSocketAddress address) {
+            this.server = address;
+        }
+    }
+}
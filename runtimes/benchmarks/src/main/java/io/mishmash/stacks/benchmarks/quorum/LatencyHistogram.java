@@ -0,0 +1,112 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.benchmarks.quorum;
+
+/**
+ * A log-linear histogram of latencies, with about 1.5% relative
+ * precision. The unit is up to the caller, the benchmarks record
+ * microseconds or nanoseconds. Not thread safe - each benchmark client
+ * keeps its own and they are merged when the run ends.
+ */
+final class LatencyHistogram {
+
+    /* values below LINEAR are counted exactly */
+    private static final int LINEAR = 128;
+    /* each power of two above that is split in SUB buckets */
+    private static final int SUB = 64;
+    private static final int SIZE = LINEAR + 57 * SUB;
+
+    private final long[] counts = new long[SIZE];
+    private long count;
+    private long sum;
+    private long max;
+
+    void record(final long latency) {
+        long v = Math.max(0, latency);
+
+        counts[index(v)]++;
+        count++;
+        sum += v;
+        max = Math.max(max, v);
+    }
+
+    void merge(final LatencyHistogram other) {
+        for (int i = 0; i < SIZE; i++) {
+            counts[i] += other.counts[i];
+        }
+
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return count;
+    }
+
+    long max() {
+        return max;
+    }
+
+    double mean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    long percentile(final double p) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(p / 100.0 * count);
+        long seen = 0;
+
+        for (int i = 0; i < SIZE; i++) {
+            seen += counts[i];
+
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(max, highest(i));
+            }
+        }
+
+        return max;
+    }
+
+    private static int index(final long v) {
+        if (v < LINEAR) {
+            return (int) v;
+        }
+
+        /* keep the 7 most significant bits, the top one is always set */
+        int shift = 57 - Long.numberOfLeadingZeros(v);
+
+        return LINEAR + (shift - 1) * SUB + (int) ((v >>> shift) - SUB);
+    }
+
+    private static long highest(final int idx) {
+        if (idx < LINEAR) {
+            return idx;
+        }
+
+        int k = idx - LINEAR;
+        int shift = k / SUB + 1;
+        long m = k % SUB + SUB;
+
+        return ((m + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.benchmarks.quorum;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher.Event.KeeperState;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.metrics.MetricsProvider;
+import org.apache.zookeeper.metrics.MetricsProviderLifeCycleException;
+import org.apache.zookeeper.metrics.impl.MetricsProviderBootstrap;
+import org.apache.zookeeper.server.ServerCnxnFactory;
+import org.apache.zookeeper.server.ServerMetrics;
+import org.apache.zookeeper.server.ZKDatabase;
+import org.apache.zookeeper.server.auth.ProviderRegistry;
+import org.apache.zookeeper.server.persistence.FileTxnSnapLog;
+import org.apache.zookeeper.server.quorum.QuorumPeer;
+import org.apache.zookeeper.server.quorum.QuorumPeerConfig;
+import org.apache.zookeeper.server.quorum.QuorumPeerConfig.ConfigException;
+
+/**
+ * A quorum of servers running inside this JVM, each with its own data
+ * directory and loopback ports.
+ *
+ * The connection factory and the watch manager are picked by the usual
+ * {@code zookeeper.serverCnxnFactory} and
+ * {@code zookeeper.watchManagerName} system properties, so all servers
+ * of an ensemble share them.
+ *
+ * The servers are the OSGi server build (quorum-server-osgi) used as a
+ * plain library: its connection factory and watch manager overrides
+ * and {@code CompactWatchManager} are in, OSGi services are not.
+ * {@code compact} names {@code CompactWatchManager}.
+ *
+ * An ensemble can also be spread over several JVMs, each running one
+ * of its servers on ports agreed in advance. This gets around the
+ * per-process limit of open files when the servers hold many
+ * connections.
+ */
+public class LocalEnsemble implements AutoCloseable {
+
+    private static final Logger LOG =
+            Logger.getLogger(LocalEnsemble.class.getName());
+
+    private final List<Peer> peers = new ArrayList<>();
+    private final int member;
+    private MetricsProvider metrics;
+
+    /**
+     * Prepare the configuration of a new ensemble with all servers
+     * in this JVM, on free ports.
+     *
+     * @param baseDir - where to keep the data of the servers
+     * @param size - the number of servers
+     * @param tickTime - the server tick time, in milliseconds
+     * @throws IOException - if the data directories cannot be created
+     */
+    public LocalEnsemble(
+            final Path baseDir,
+            final int size,
+            final int tickTime) throws IOException {
+        this(baseDir, size, tickTime, freePorts(Math.max(size, 0) * 3), 0);
+    }
+
+    /**
+     * Prepare the configuration of a new ensemble with only one of
+     * its servers in this JVM. Server {@code i}, starting at 1, takes
+     * the three ports from {@code basePort + 3 * (i - 1)}, the first
+     * one for clients.
+     *
+     * @param baseDir - where to keep the data of the server
+     * @param size - the number of servers
+     * @param tickTime - the server tick time, in milliseconds
+     * @param basePort - the first port of the ensemble
+     * @param serverId - the server to run here
+     * @throws IOException - if the data directory cannot be created
+     */
+    public LocalEnsemble(
+            final Path baseDir,
+            final int size,
+            final int tickTime,
+            final int basePort,
+            final int serverId) throws IOException {
+        this(baseDir, size, tickTime,
+                fixedPorts(size, basePort, serverId),
+                serverId);
+    }
+
+    private LocalEnsemble(
+            final Path baseDir,
+            final int size,
+            final int tickTime,
+            final int[] ports,
+            final int serverId) throws IOException {
+        if (size < 1) {
+            throw new IllegalArgumentException(
+                    "Ensemble size must be positive");
+        }
+
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+
+        this.member = serverId;
+
+        for (int i = 0; i < size; i++) {
+            int id = i + 1;
+
+            if (!runsHere(id)) {
+                peers.add(new Peer(id, host, ports[i * 3], null));
+                continue;
+            }
+
+            Path dataDir = Files.createDirectories(
+                    baseDir.resolve("server." + id));
+            Properties cfg = new Properties();
+
+            Files.writeString(
+                    dataDir.resolve("myid"),
+                    Integer.toString(id),
+                    StandardCharsets.US_ASCII);
+
+            cfg.setProperty("tickTime", Integer.toString(tickTime));
+            cfg.setProperty("initLimit", "20");
+            cfg.setProperty("syncLimit", "10");
+            cfg.setProperty("dataDir", dataDir.toString());
+            cfg.setProperty("clientPortAddress", host);
+            cfg.setProperty("clientPort", Integer.toString(ports[i * 3]));
+            cfg.setProperty("maxClientCnxns", "0");
+            cfg.setProperty("standaloneEnabled", "false");
+            cfg.setProperty("4lw.commands.whitelist", "*");
+
+            for (int j = 0; j < size; j++) {
+                cfg.setProperty("server." + (j + 1), String.format(
+                        "%s:%d:%d",
+                        host,
+                        ports[j * 3 + 1],
+                        ports[j * 3 + 2]));
+            }
+
+            peers.add(new Peer(id, host, ports[i * 3], cfg));
+        }
+    }
+
+    /**
+     * Start all servers and wait until each of them serves clients.
+     *
+     * @param timeoutMillis - how long to wait for the ensemble
+     * @throws IOException - if a server could not be configured
+     * @throws InterruptedException - if interrupted while waiting
+     * @throws TimeoutException - if a server did not come up in time
+     */
+    public void start(final long timeoutMillis)
+            throws IOException, InterruptedException, TimeoutException {
+        List<Peer> local = localPeers();
+        List<QuorumPeerConfig> configs = new ArrayList<>();
+
+        for (Peer peer : local) {
+            configs.add(peer.parseConfig());
+        }
+
+        /* server metrics are global, one provider serves all peers */
+        QuorumPeerConfig first = configs.get(0);
+
+        try {
+            metrics = MetricsProviderBootstrap.startMetricsProvider(
+                    first.getMetricsProviderClassName(),
+                    first.getMetricsProviderConfiguration());
+        } catch (MetricsProviderLifeCycleException e) {
+            throw new IOException("Cannot start the metrics provider", e);
+        }
+
+        ServerMetrics.metricsProviderInitialized(metrics);
+        ProviderRegistry.initialize();
+
+        for (int i = 0; i < local.size(); i++) {
+            local.get(i).start(configs.get(i));
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        /* a single server only serves once the others are up too */
+        for (Peer peer : local) {
+            awaitServing(peer.address(), deadline);
+        }
+
+        LOG.info("Started " + local.size() + " of the " + peers.size()
+                + " servers at " + getConnectString());
+    }
+
+    /**
+     * @return the number of servers
+     */
+    public int size() {
+        return peers.size();
+    }
+
+    /**
+     * @return a connect string listing all servers
+     */
+    public String getConnectString() {
+        return peers.stream()
+                .map(Peer::address)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * @param i - the index of a server, starting at 0
+     * @return a connect string for just this server
+     */
+    public String getConnectString(final int i) {
+        return peers.get(i).address();
+    }
+
+    /**
+     * @return the client connections open on the servers in this JVM
+     */
+    public int getNumAliveConnections() {
+        int n = 0;
+
+        for (Peer peer : localPeers()) {
+            n += peer.getNumAliveConnections();
+        }
+
+        return n;
+    }
+
+    @Override
+    public void close() {
+        for (Peer peer : localPeers()) {
+            peer.stopPeer();
+        }
+
+        if (metrics != null) {
+            metrics.stop();
+            metrics = null;
+        }
+    }
+
+    private boolean runsHere(final int id) {
+        return member == 0 || member == id;
+    }
+
+    private List<Peer> localPeers() {
+        return peers.stream()
+                .filter(p -> runsHere(p.id))
+                .toList();
+    }
+
+    private static void awaitServing(
+            final String address,
+            final long deadline)
+            throws IOException, InterruptedException, TimeoutException {
+        while (true) {
+            long left = deadline - System.currentTimeMillis();
+
+            if (left <= 0) {
+                throw new TimeoutException("Server at " + address
+                        + " did not start in time");
+            }
+
+            CountDownLatch connected = new CountDownLatch(1);
+            ZooKeeper zk = new ZooKeeper(address, (int) Math.max(left, 1000),
+                    e -> {
+                        if (e.getState() == KeeperState.SyncConnected) {
+                            connected.countDown();
+                        }
+                    });
+
+            try {
+                if (connected.await(Math.min(left, 2000), TimeUnit.MILLISECONDS)
+                        && zk.exists("/", false) != null) {
+                    return;
+                }
+            } catch (KeeperException e) {
+                /* not in the quorum yet */
+            } finally {
+                zk.close();
+            }
+
+            Thread.sleep(100);
+        }
+    }
+
+    private static int[] fixedPorts(
+            final int size,
+            final int basePort,
+            final int serverId) {
+        if (serverId < 1 || serverId > size) {
+            throw new IllegalArgumentException(
+                    "No server " + serverId + " in an ensemble of " + size);
+        }
+
+        return IntStream.range(0, size * 3)
+                .map(i -> basePort + i)
+                .toArray();
+    }
+
+    private static int[] freePorts(final int n) throws IOException {
+        int[] ports = new int[n];
+        ServerSocket[] sockets = new ServerSocket[n];
+
+        try {
+            /* keep all open until the end, to get distinct ports */
+            for (int i = 0; i < n; i++) {
+                sockets[i] = new ServerSocket(0);
+                ports[i] = sockets[i].getLocalPort();
+            }
+        } finally {
+            for (ServerSocket s : sockets) {
+                if (s != null) {
+                    s.close();
+                }
+            }
+        }
+
+        return ports;
+    }
+
+    /*
+     * Sets up a quorum peer the way QuorumPeerMain.runFromConfig()
+     * does, minus SSL, SASL and the secure client port. The OSGi server
+     * build leaves out the main classes, so they are not used here.
+     */
+    private static final class Peer {
+
+        private final int id;
+        private final String address;
+        /* null for servers running in other JVMs */
+        private final Properties cfg;
+        private ServerCnxnFactory cnxnFactory;
+        private QuorumPeer quorumPeer;
+
+        private Peer(
+                final int serverId,
+                final String host,
+                final int clientPort,
+                final Properties config) {
+            this.id = serverId;
+            this.address = host + ":" + clientPort;
+            this.cfg = config;
+        }
+
+        private String address() {
+            return address;
+        }
+
+        private QuorumPeerConfig parseConfig() throws IOException {
+            QuorumPeerConfig config = new QuorumPeerConfig();
+
+            try {
+                config.parseProperties(cfg);
+            } catch (ConfigException e) {
+                throw new IOException(
+                        "Invalid configuration of server " + id, e);
+            }
+
+            return config;
+        }
+
+        private void start(final QuorumPeerConfig config)
+                throws IOException {
+            cnxnFactory = ServerCnxnFactory.createFactory();
+            cnxnFactory.configure(
+                    config.getClientPortAddress(),
+                    config.getMaxClientCnxns(),
+                    config.getClientPortListenBacklog(),
+                    false);
+
+            QuorumPeer peer = new QuorumPeer();
+
+            peer.setTxnFactory(new FileTxnSnapLog(
+                    config.getDataLogDir(),
+                    config.getDataDir()));
+            peer.enableLocalSessions(config.areLocalSessionsEnabled());
+            peer.enableLocalSessionsUpgrading(
+                    config.isLocalSessionsUpgradingEnabled());
+            peer.setElectionType(config.getElectionAlg());
+            peer.setMyid(config.getServerId());
+            peer.setTickTime(config.getTickTime());
+            peer.setMinSessionTimeout(config.getMinSessionTimeout());
+            peer.setMaxSessionTimeout(config.getMaxSessionTimeout());
+            peer.setInitLimit(config.getInitLimit());
+            peer.setSyncLimit(config.getSyncLimit());
+            peer.setConnectToLearnerMasterLimit(
+                    config.getConnectToLearnerMasterLimit());
+            peer.setObserverMasterPort(config.getObserverMasterPort());
+            peer.setClientPortListenBacklog(
+                    config.getClientPortListenBacklog());
+            peer.setZKDatabase(new ZKDatabase(peer.getTxnFactory()));
+            peer.setQuorumVerifier(config.getQuorumVerifier(), false);
+            peer.initConfigInZKDatabase();
+            peer.setCnxnFactory(cnxnFactory);
+            peer.setLearnerType(config.getPeerType());
+            peer.setSyncEnabled(config.getSyncEnabled());
+            peer.setQuorumListenOnAllIPs(config.getQuorumListenOnAllIPs());
+            peer.initialize();
+            peer.start();
+
+            quorumPeer = peer;
+        }
+
+        private int getNumAliveConnections() {
+            ServerCnxnFactory f = cnxnFactory;
+
+            return f == null ? 0 : f.getNumAliveConnections();
+        }
+
+        private void stopPeer() {
+            QuorumPeer peer = quorumPeer;
+
+            if (peer != null) {
+                peer.shutdown();
+
+                try {
+                    peer.join(10_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                quorumPeer = null;
+            }
+
+            /*
+             * the peer shuts its factory down too, but not if it failed
+             * before getting that far
+             */
+            if (cnxnFactory != null) {
+                cnxnFactory.shutdown();
+                cnxnFactory = null;
+            }
+        }
+    }
+}
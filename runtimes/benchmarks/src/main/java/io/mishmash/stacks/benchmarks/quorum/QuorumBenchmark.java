@@ -0,0 +1,444 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.benchmarks.quorum;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.Watcher.Event.EventType;
+import org.apache.zookeeper.Watcher.Event.KeeperState;
+import org.apache.zookeeper.ZooDefs.Ids;
+import org.apache.zookeeper.ZooKeeper;
+
+/**
+ * Brings up a local ensemble and measures it under a mix of reads,
+ * writes and watch registrations coming from many client sessions.
+ *
+ * Options are given as {@code --name=value}:
+ * <ul>
+ *   <li>{@code servers} - ensemble size, default 3</li>
+ *   <li>{@code clients} - concurrent client sessions, default 32</li>
+ *   <li>{@code duration} - measured seconds, default 30</li>
+ *   <li>{@code warmup} - seconds before measuring, default 5</li>
+ *   <li>{@code reads}, {@code writes}, {@code watches} - relative
+ *       weights of the operations, default 80, 15 and 5</li>
+ *   <li>{@code keys} - number of znodes, default 1000</li>
+ *   <li>{@code valueSize} - bytes written per znode, default 128</li>
+ *   <li>{@code cnxnFactory} - {@code nio}, {@code netty} or a class
+ *       name, default is the server default</li>
+ *   <li>{@code watchManager} - watch manager class name, or
+ *       {@code compact} for {@code CompactWatchManager}</li>
+ *   <li>{@code dataDir} - where to keep server data, default is
+ *       a temporary directory removed at the end</li>
+ *   <li>{@code output} - file for the JSON report, default stdout</li>
+ * </ul>
+ *
+ * Each client is a separate session with one request in flight, the
+ * sessions are spread evenly over the servers. Latencies are reported
+ * in microseconds.
+ *
+ * What is measured is the OSGi server build, see {@link LocalEnsemble}.
+ */
+public final class QuorumBenchmark {
+
+    private static final Logger LOG =
+            Logger.getLogger(QuorumBenchmark.class.getName());
+
+    private static final String ROOT = "/quorum-bench";
+
+    private static final Map<String, String> CNXN_FACTORIES = Map.of(
+            "nio", "org.apache.zookeeper.server.NIOServerCnxnFactory",
+            "netty", "org.apache.zookeeper.server.NettyServerCnxnFactory");
+
+    /**
+     * The kinds of requests the benchmark sends.
+     */
+    public enum Operation {
+        /** a plain getData. */
+        READ,
+        /** a setData, triggering any watches on the znode. */
+        WRITE,
+        /** a getData that leaves a data watch. */
+        WATCH
+    }
+
+    private final Map<String, String> opts;
+    private final int servers;
+    private final int clients;
+    private final long warmupMillis;
+    private final long durationMillis;
+    private final int[] weights = new int[Operation.values().length];
+    private final int keys;
+    private final byte[] value;
+
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder watchEvents = new LongAdder();
+
+    private QuorumBenchmark(final Map<String, String> options) {
+        this.opts = options;
+        this.servers = intOpt("servers", 3);
+        this.clients = intOpt("clients", 32);
+        this.warmupMillis = TimeUnit.SECONDS.toMillis(intOpt("warmup", 5));
+        this.durationMillis = TimeUnit.SECONDS.toMillis(intOpt("duration", 30));
+        this.weights[Operation.READ.ordinal()] = intOpt("reads", 80);
+        this.weights[Operation.WRITE.ordinal()] = intOpt("writes", 15);
+        this.weights[Operation.WATCH.ordinal()] = intOpt("watches", 5);
+        this.keys = intOpt("keys", 1000);
+        this.value = new byte[intOpt("valueSize", 128)];
+
+        if (servers < 1 || clients < 1 || keys < 1 || durationMillis <= 0
+                || weights[0] + weights[1] + weights[2] <= 0) {
+            throw new IllegalArgumentException("Invalid benchmark options");
+        }
+    }
+
+    /**
+     * Run a benchmark and print its JSON report.
+     *
+     * @param args - options, as {@code --name=value}
+     * @throws Exception - if the ensemble fails or the run is interrupted
+     */
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException(
+                        "Expected --name=value, got: " + arg);
+            }
+
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        String report = new QuorumBenchmark(options).run();
+        String output = options.get("output");
+
+        if (output == null) {
+            System.out.println(report);
+        } else {
+            Files.writeString(Paths.get(output), report, StandardCharsets.UTF_8);
+        }
+    }
+
+    private String run() throws Exception {
+        String cnxnFactory = opts.get("cnxnFactory");
+        String watchManager = opts.get("watchManager");
+
+        if (cnxnFactory != null) {
+            System.setProperty("zookeeper.serverCnxnFactory",
+                    CNXN_FACTORIES.getOrDefault(
+                            cnxnFactory.toLowerCase(Locale.ROOT),
+                            cnxnFactory));
+        }
+
+        if (watchManager != null) {
+            System.setProperty("zookeeper.watchManagerName", watchManager);
+        }
+
+        System.setProperty("zookeeper.admin.enableServer", "false");
+
+        boolean tempDir = !opts.containsKey("dataDir");
+        Path dataDir = tempDir
+                ? Files.createTempDirectory("quorum-bench")
+                : Paths.get(opts.get("dataDir"));
+
+        try (LocalEnsemble ensemble = new LocalEnsemble(
+                dataDir, servers, intOpt("tickTime", 500))) {
+            ensemble.start(TimeUnit.SECONDS.toMillis(60));
+            populate(ensemble);
+
+            return report(measure(ensemble));
+        } finally {
+            if (tempDir) {
+                delete(dataDir);
+            }
+        }
+    }
+
+    private void populate(final LocalEnsemble ensemble) throws Exception {
+        ZooKeeper zk = connect(ensemble.getConnectString());
+
+        try {
+            create(zk, ROOT);
+
+            for (int i = 0; i < keys; i++) {
+                create(zk, key(i));
+            }
+        } finally {
+            zk.close();
+        }
+    }
+
+    private void create(final ZooKeeper zk, final String path)
+            throws KeeperException, InterruptedException {
+        try {
+            zk.create(path, value, Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT);
+        } catch (KeeperException.NodeExistsException e) {
+            /* kept from an earlier run in the same data dir */
+        }
+    }
+
+    private List<Client> measure(final LocalEnsemble ensemble)
+            throws Exception {
+        List<Client> all = new ArrayList<>(clients);
+        CountDownLatch ready = new CountDownLatch(clients);
+
+        for (int i = 0; i < clients; i++) {
+            all.add(new Client(
+                    connect(ensemble.getConnectString(i % servers)),
+                    ready));
+        }
+
+        long start = System.currentTimeMillis();
+        long measureFrom = start + warmupMillis;
+        long end = measureFrom + durationMillis;
+
+        LOG.info("Running " + clients + " clients against "
+                + servers + " servers for "
+                + (end - start) / 1000 + " seconds");
+
+        for (Client c : all) {
+            c.start(measureFrom, end);
+        }
+
+        for (Client c : all) {
+            c.join();
+        }
+
+        return all;
+    }
+
+    private String report(final List<Client> all) {
+        Map<Operation, LatencyHistogram> merged = new EnumMap<>(Operation.class);
+        LatencyHistogram total = new LatencyHistogram();
+
+        for (Operation op : Operation.values()) {
+            merged.put(op, new LatencyHistogram());
+        }
+
+        for (Client c : all) {
+            for (Operation op : Operation.values()) {
+                merged.get(op).merge(c.latencies.get(op));
+                total.merge(c.latencies.get(op));
+            }
+        }
+
+        double seconds = durationMillis / 1000.0;
+        StringBuilder json = new StringBuilder(1024);
+
+        json.append("{\n");
+        json.append("  \"servers\": ").append(servers).append(",\n");
+        json.append("  \"clients\": ").append(clients).append(",\n");
+        json.append("  \"cnxnFactory\": ").append(quote(
+                System.getProperty("zookeeper.serverCnxnFactory"))).append(",\n");
+        json.append("  \"watchManager\": ").append(quote(
+                System.getProperty("zookeeper.watchManagerName"))).append(",\n");
+        json.append("  \"keys\": ").append(keys).append(",\n");
+        json.append("  \"valueSize\": ").append(value.length).append(",\n");
+        json.append("  \"durationSeconds\": ").append(seconds).append(",\n");
+        json.append("  \"errors\": ").append(errors.sum()).append(",\n");
+        json.append("  \"watchEvents\": ").append(watchEvents.sum()).append(",\n");
+        json.append("  \"operations\": {\n");
+
+        for (Operation op : Operation.values()) {
+            json.append("    \"").append(op.name().toLowerCase(Locale.ROOT))
+                .append("\": ");
+            appendStats(json, merged.get(op), seconds);
+            json.append(",\n");
+        }
+
+        json.append("    \"total\": ");
+        appendStats(json, total, seconds);
+        json.append("\n  }\n}");
+
+        return json.toString();
+    }
+
+    private static void appendStats(
+            final StringBuilder json,
+            final LatencyHistogram h,
+            final double seconds) {
+        json.append(String.format(Locale.ROOT,
+                "{\"count\": %d, \"throughput\": %.1f, "
+                    + "\"latencyMicros\": {\"mean\": %.1f, \"p50\": %d, "
+                    + "\"p99\": %d, \"p999\": %d, \"max\": %d}}",
+                h.count(),
+                h.count() / seconds,
+                h.mean(),
+                h.percentile(50.0),
+                h.percentile(99.0),
+                h.percentile(99.9),
+                h.max()));
+    }
+
+    private static String quote(final String s) {
+        return s == null
+                ? "null"
+                : "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private ZooKeeper connect(final String connectString)
+            throws IOException, InterruptedException {
+        CountDownLatch connected = new CountDownLatch(1);
+        ZooKeeper zk = new ZooKeeper(connectString, 30_000, e -> {
+            if (e.getState() == KeeperState.SyncConnected) {
+                connected.countDown();
+            }
+        });
+
+        if (!connected.await(30, TimeUnit.SECONDS)) {
+            zk.close();
+
+            throw new IOException("Could not connect to " + connectString);
+        }
+
+        return zk;
+    }
+
+    private int intOpt(final String name, final int def) {
+        String v = opts.get(name);
+
+        return v == null ? def : Integer.parseInt(v.trim());
+    }
+
+    private static String key(final int i) {
+        return ROOT + "/k" + i;
+    }
+
+    private static void delete(final Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private final class Client implements Runnable {
+
+        private final ZooKeeper zk;
+        private final CountDownLatch ready;
+        private final Map<Operation, LatencyHistogram> latencies =
+                new EnumMap<>(Operation.class);
+        private final Watcher watcher = e -> {
+            if (e.getType() != EventType.None) {
+                watchEvents.increment();
+            }
+        };
+        private final Thread thread;
+        private long measureFrom;
+        private long end;
+
+        private Client(final ZooKeeper session, final CountDownLatch latch) {
+            this.zk = session;
+            this.ready = latch;
+            this.thread = new Thread(this, "quorum-bench-client");
+
+            for (Operation op : Operation.values()) {
+                latencies.put(op, new LatencyHistogram());
+            }
+        }
+
+        private void start(final long from, final long until) {
+            this.measureFrom = from;
+            this.end = until;
+            thread.start();
+        }
+
+        private void join() throws InterruptedException {
+            thread.join();
+            zk.close();
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            int weightSum = weights[0] + weights[1] + weights[2];
+
+            ready.countDown();
+
+            try {
+                ready.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            long now;
+
+            while ((now = System.currentTimeMillis()) < end) {
+                Operation op = pick(rnd.nextInt(weightSum));
+                String path = key(rnd.nextInt(keys));
+                long t0 = System.nanoTime();
+
+                try {
+                    switch (op) {
+                    case READ -> zk.getData(path, false, null);
+                    case WRITE -> zk.setData(path, value, -1);
+                    case WATCH -> zk.getData(path, watcher, null);
+                    default -> throw new IllegalStateException();
+                    }
+                } catch (KeeperException e) {
+                    errors.increment();
+                    continue;
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                if (now >= measureFrom) {
+                    latencies.get(op).record(
+                            (System.nanoTime() - t0) / 1000);
+                }
+            }
+        }
+
+        private Operation pick(final int r) {
+            int acc = 0;
+
+            for (Operation op : Operation.values()) {
+                acc += weights[op.ordinal()];
+
+                if (r < acc) {
+                    return op;
+                }
+            }
+
+            return Operation.READ;
+        }
+    }
+}
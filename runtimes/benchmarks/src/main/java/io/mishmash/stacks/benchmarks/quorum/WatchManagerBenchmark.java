@@ -0,0 +1,262 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.benchmarks.quorum;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.Watcher.Event.EventType;
+import org.apache.zookeeper.server.watch.IWatchManager;
+
+import io.mishmash.stacks.quorum.server.watch.CompactWatchManager;
+
+/**
+ * Compares watch managers holding a large number of watches: the heap
+ * they retain and how long a triggered watch takes.
+ *
+ * The manager is used directly, without a server, so that nothing
+ * else ends up on the heap or in the measured time. Run each manager
+ * in its own JVM, the heap figures are taken after full collections.
+ *
+ * Options are given as {@code --name=value}:
+ * <ul>
+ *   <li>{@code watchManager} - {@code default} for the upstream
+ *       {@code WatchManager}, {@code optimized} for the upstream
+ *       {@code WatchManagerOptimized}, {@code compact} for
+ *       {@code CompactWatchManager}, or a class name. Default is
+ *       {@code default}</li>
+ *   <li>{@code watches} - total number of watches, default 10000000</li>
+ *   <li>{@code watchersPerPath} - watches on every path, default 10</li>
+ *   <li>{@code sessions} - distinct watchers, default 10000</li>
+ *   <li>{@code triggers} - measured triggers, default 200000</li>
+ *   <li>{@code output} - file for the JSON report, default stdout</li>
+ * </ul>
+ *
+ * Each triggered path gets its watches back right after, outside of
+ * the measured time, like clients re-registering them would, so that
+ * the number of watches stays the same during the run. Trigger
+ * latencies are reported in nanoseconds.
+ */
+public final class WatchManagerBenchmark {
+
+    private static final Logger LOG =
+            Logger.getLogger(WatchManagerBenchmark.class.getName());
+
+    private static final Map<String, String> WATCH_MANAGERS = Map.of(
+            "default", "org.apache.zookeeper.server.watch.WatchManager",
+            "optimized", "org.apache.zookeeper.server.watch.WatchManagerOptimized",
+            "compact", CompactWatchManager.class.getName());
+
+    private final Map<String, String> opts;
+    private final String watchManager;
+    private final int paths;
+    private final int watchersPerPath;
+    private final int sessions;
+    private final int triggers;
+
+    private WatchManagerBenchmark(final Map<String, String> options) {
+        String name = options.getOrDefault("watchManager", "default");
+
+        this.opts = options;
+        this.watchManager = WATCH_MANAGERS.getOrDefault(
+                name.toLowerCase(Locale.ROOT),
+                name);
+        this.watchersPerPath = intOpt("watchersPerPath", 10);
+        this.paths = intOpt("watches", 10_000_000) / Math.max(1, watchersPerPath);
+        this.sessions = intOpt("sessions", 10_000);
+        this.triggers = intOpt("triggers", 200_000);
+
+        if (paths < 1 || watchersPerPath < 1 || triggers < 1
+                || sessions < watchersPerPath) {
+            throw new IllegalArgumentException("Invalid benchmark options");
+        }
+    }
+
+    /**
+     * Run a benchmark and print its JSON report.
+     *
+     * @param args - options, as {@code --name=value}
+     * @throws Exception - if the watch manager cannot be created
+     */
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException(
+                        "Expected --name=value, got: " + arg);
+            }
+
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        String report = new WatchManagerBenchmark(options).run();
+        String output = options.get("output");
+
+        if (output == null) {
+            System.out.println(report);
+        } else {
+            Files.writeString(Paths.get(output), report, StandardCharsets.UTF_8);
+        }
+    }
+
+    private String run() throws Exception {
+        String[] pathNames = new String[paths];
+        Session[] watchers = new Session[sessions];
+        /* the first watcher of each path, the others follow it */
+        int[] firstWatcher = new int[paths];
+        Random rnd = new Random(42);
+
+        for (int i = 0; i < paths; i++) {
+            pathNames[i] = "/watched/" + i / 1000 + "/n" + i;
+            firstWatcher[i] = rnd.nextInt(sessions);
+        }
+
+        for (int i = 0; i < sessions; i++) {
+            watchers[i] = new Session();
+        }
+
+        long heapBefore = usedHeap();
+        IWatchManager manager = (IWatchManager) Class.forName(watchManager)
+                .getDeclaredConstructor()
+                .newInstance();
+
+        LOG.info("Adding " + (long) paths * watchersPerPath
+                + " watches to " + watchManager);
+
+        long t0 = System.nanoTime();
+
+        for (int i = 0; i < paths; i++) {
+            watch(manager, pathNames[i], watchers, firstWatcher[i]);
+        }
+
+        long addNanos = System.nanoTime() - t0;
+        long heapAfter = usedHeap();
+        long watches = manager.size();
+
+        LOG.info("Triggering " + triggers + " paths");
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        int warmup = Math.min(triggers, 50_000);
+
+        for (int n = 0; n < warmup + triggers; n++) {
+            int i = rnd.nextInt(paths);
+            long start = System.nanoTime();
+
+            manager.triggerWatch(pathNames[i], EventType.NodeDataChanged, n, null);
+
+            if (n >= warmup) {
+                latencies.record(System.nanoTime() - start);
+            }
+
+            watch(manager, pathNames[i], watchers, firstWatcher[i]);
+        }
+
+        long events = 0;
+
+        for (Session s : watchers) {
+            events += s.events;
+        }
+
+        manager.shutdown();
+
+        return report(watches, heapAfter - heapBefore, addNanos, latencies, events);
+    }
+
+    private void watch(
+            final IWatchManager manager,
+            final String path,
+            final Session[] watchers,
+            final int first) {
+        for (int j = 0; j < watchersPerPath; j++) {
+            manager.addWatch(path, watchers[(first + j) % sessions]);
+        }
+    }
+
+    private String report(
+            final long watches,
+            final long retainedBytes,
+            final long addNanos,
+            final LatencyHistogram h,
+            final long events) {
+        StringBuilder json = new StringBuilder(512);
+
+        json.append("{\n");
+        json.append("  \"watchManager\": \"").append(watchManager).append("\",\n");
+        json.append("  \"watches\": ").append(watches).append(",\n");
+        json.append("  \"paths\": ").append(paths).append(",\n");
+        json.append("  \"sessions\": ").append(sessions).append(",\n");
+        json.append(String.format(Locale.ROOT,
+                "  \"retainedHeapBytes\": %d,%n"
+                    + "  \"bytesPerWatch\": %.1f,%n"
+                    + "  \"addWatchNanos\": %.1f,%n",
+                retainedBytes,
+                (double) retainedBytes / watches,
+                (double) addNanos / watches));
+        json.append("  \"events\": ").append(events).append(",\n");
+        json.append(String.format(Locale.ROOT,
+                "  \"trigger\": {\"count\": %d, \"latencyNanos\": "
+                    + "{\"mean\": %.1f, \"p50\": %d, \"p99\": %d, "
+                    + "\"p999\": %d, \"max\": %d}}%n}",
+                h.count(),
+                h.mean(),
+                h.percentile(50.0),
+                h.percentile(99.0),
+                h.percentile(99.9),
+                h.max()));
+
+        return json.toString();
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private int intOpt(final String name, final int def) {
+        String v = opts.get(name);
+
+        return v == null ? def : Integer.parseInt(v.trim());
+    }
+
+    private static final class Session implements Watcher {
+
+        private long events;
+
+        @Override
+        public void process(final WatchedEvent event) {
+            events++;
+        }
+    }
+}
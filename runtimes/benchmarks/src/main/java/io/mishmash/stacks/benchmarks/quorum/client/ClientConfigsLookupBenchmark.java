@@ -0,0 +1,201 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+
+package io.mishmash.stacks.benchmarks.quorum.client;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.client.HostProvider;
+import org.apache.zookeeper.client.ZKClientConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.mishmash.stacks.quorum.client.osgi.impl.ClientConfigFactory;
+import io.mishmash.stacks.quorum.client.osgi.impl.ClientConfigsTracker;
+
+/*
+ * The ClientConfigsTracker lookups done by DefaultOsgiHostProvider on
+ * every next() and size() and by DefaultOsgiWatcher on every event,
+ * with a number of quorums registered.
+ *
+ * The scan* benchmarks do the same lookups the way the tracker did
+ * before it was indexed - streaming over a ConcurrentLinkedQueue - as
+ * a baseline. Run with '-prof gc', the indexed lookups should stay
+ * flat as quorums are added and allocate nothing per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientConfigsLookupBenchmark {
+
+    @Param({"1", "16", "256"})
+    private int quorums;
+
+    private final Tracker tracker = new Tracker();
+    private final List<Registration> registered = new ArrayList<>();
+    private final Collection<Map.Entry<HostProvider, Map<String, Object>>>
+            scanHostProviders = new ConcurrentLinkedQueue<>();
+    private final Collection<Map.Entry<Watcher, Map<String, Object>>>
+            scanWatchers = new ConcurrentLinkedQueue<>();
+    /*
+     * The last quorum registered, the worst case for a scan.
+     */
+    private String connectStr;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        for (int i = 0; i < quorums; i++) {
+            Map<String, Object> props = Map.of(
+                    ClientConfigFactory.PROP_QUORUM_ID, "quorum-" + i,
+                    ClientConfigFactory.PROP_QUORUM_CONNECT,
+                            "zk-" + i + "-0:2181,zk-" + i + "-1:2181");
+            Registration r = new Registration(
+                    new ZKClientConfig(),
+                    e -> { },
+                    new StaticHostProvider(),
+                    props);
+
+            tracker.add(r);
+            registered.add(r);
+            scanHostProviders.add(Map.entry(r.hostProvider(), props));
+            scanWatchers.add(Map.entry(r.watcher(), props));
+            connectStr = (String) props.get(
+                    ClientConfigFactory.PROP_QUORUM_CONNECT);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // the tracker indexes are static, leave them empty
+        registered.forEach(tracker::remove);
+        registered.clear();
+    }
+
+    @Benchmark
+    public HostProvider hostProviderForQuorumConnectStr() {
+        return ClientConfigsTracker.hostProviderForQuorumConnectStr(
+                connectStr);
+    }
+
+    @Benchmark
+    public ZKClientConfig configForQuorumConnectStr() {
+        return ClientConfigsTracker.configForQuorumConnectStr(connectStr);
+    }
+
+    @Benchmark
+    public Collection<Watcher> watchersForQuorumConnectStr() {
+        return ClientConfigsTracker.watchersForQuorumConnectStr(connectStr);
+    }
+
+    @Benchmark
+    public HostProvider scanHostProviderForQuorumConnectStr() {
+        return scanHostProviders.stream()
+                .filter(e -> connectStr.equals(
+                        e.getValue().getOrDefault(
+                                ClientConfigFactory.PROP_QUORUM_CONNECT,
+                                null)))
+                .map(Map.Entry::getKey)
+                .findAny()
+                .orElse(null);
+    }
+
+    @Benchmark
+    public Collection<Watcher> scanWatchersForQuorumConnectStr() {
+        return scanWatchers.stream()
+                .filter(e -> connectStr.equals(
+                        e.getValue().getOrDefault(
+                                ClientConfigFactory.PROP_QUORUM_CONNECT,
+                                null)))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private record Registration(
+            ZKClientConfig config,
+            Watcher watcher,
+            HostProvider hostProvider,
+            Map<String, Object> props) {
+    }
+
+    /*
+     * Gives the benchmark the DS bind and unbind methods.
+     */
+    private static final class Tracker extends ClientConfigsTracker {
+
+        void add(final Registration r) {
+            addClientConfig(r.config(), r.props());
+            addWatcher(r.watcher(), r.props());
+            addHostProvider(r.hostProvider(), r.props());
+        }
+
+        void remove(final Registration r) {
+            removeClientConfig(r.config(), r.props());
+            removeWatcher(r.watcher(), r.props());
+            removeHostProvider(r.hostProvider(), r.props());
+        }
+    }
+
+    private static final class StaticHostProvider implements HostProvider {
+
+        private final InetSocketAddress address =
+                InetSocketAddress.createUnresolved("localhost", 2181);
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public InetSocketAddress next(final long spinDelay) {
+            return address;
+        }
+
+        @Override
+        public void onConnected() {
+        }
+
+        @Override
+        public boolean updateServerList(
+                final Collection<InetSocketAddress> serverAddresses,
+                final InetSocketAddress currentHost) {
+            return false;
+        }
+    }
+}
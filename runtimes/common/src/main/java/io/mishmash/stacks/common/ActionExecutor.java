@@ -0,0 +1,31 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.util.concurrent.Executor;
+
+/*
+ * Runs the blocking refresh work (HTTP requests, external
+ * processes) of memoized actions, so that it stays off the
+ * common ForkJoinPool.
+ */
+@FunctionalInterface
+public interface ActionExecutor extends Executor {
+
+}
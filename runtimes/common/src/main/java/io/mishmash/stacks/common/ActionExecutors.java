@@ -0,0 +1,68 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class ActionExecutors {
+
+    public static final String THREAD_NAME_PREFIX = "memoizable-action-";
+
+    private static final AtomicReference<ActionExecutor> shared =
+            new AtomicReference<>(null);
+
+    private ActionExecutors() {
+        // static utility
+    }
+
+    public static ExecutorService newVirtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual()
+                    .name(THREAD_NAME_PREFIX, 0)
+                    .factory());
+    }
+
+    public static ActionExecutor getShared() {
+        ActionExecutor executor = shared.get();
+
+        return executor == null
+                ? DefaultHolder.DEFAULT
+                : executor;
+    }
+
+    public static void setShared(final ActionExecutor executor) {
+        shared.set(executor);
+    }
+
+    public static void unsetShared(final ActionExecutor executor) {
+        // only if it wasn't replaced in the meantime
+        shared.compareAndSet(executor, null);
+    }
+
+    private static final class DefaultHolder {
+        /*
+         * Used outside of an OSGi framework, or before an
+         * ActionExecutor service is available.
+         */
+        private static final ActionExecutor DEFAULT =
+                newVirtualThreadExecutor()::execute;
+    }
+}
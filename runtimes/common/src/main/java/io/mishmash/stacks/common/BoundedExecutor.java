@@ -0,0 +1,108 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * Runs at most maxConcurrency tasks at a time on an underlying
+ * executor, queueing the rest.
+ */
+public class BoundedExecutor implements Executor {
+
+    private final Supplier<? extends Executor> delegate;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger running = new AtomicInteger(0);
+    private volatile int maxConcurrency;
+
+    public BoundedExecutor(
+            final Supplier<? extends Executor> executorSupplier,
+            final int newMaxConcurrency) {
+        delegate = executorSupplier;
+        setMaxConcurrency(newMaxConcurrency);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        queue.add(command);
+        drain();
+    }
+
+    private void drain() {
+        for (;;) {
+            int current = running.get();
+            if (current >= maxConcurrency || queue.isEmpty()) {
+                return;
+            }
+
+            if (!running.compareAndSet(current, current + 1)) {
+                continue;
+            }
+
+            Runnable task = queue.poll();
+            if (task == null) {
+                running.decrementAndGet();
+
+                continue;
+            }
+
+            try {
+                delegate.get().execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        running.decrementAndGet();
+                        drain();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                running.decrementAndGet();
+
+                throw e;
+            }
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(final int newMaxConcurrency) {
+        if (newMaxConcurrency < 1) {
+            throw new IllegalArgumentException(
+                    "Max concurrency must be at least 1");
+        }
+
+        maxConcurrency = newMaxConcurrency;
+        drain();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public int getRunning() {
+        return running.get();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/*
+ * Keeps its value in a MemoStore with an explicit byte budget,
+ * instead of behind a SoftReference.
+ */
+public abstract class BoundedMemoizableAction<T>
+        extends ExpiringMemoizableAction<T> {
+
+    public static final long DEFAULT_WEIGHT = 1024;
+
+    private final MemoStore store;
+    private final ToLongFunction<? super T> weigher;
+    private volatile MemoStore.Entry<T> entry;
+
+    public BoundedMemoizableAction() {
+        this(null, MemoStore.getDefault(), v -> DEFAULT_WEIGHT);
+    }
+
+    public BoundedMemoizableAction(
+            final Duration newMaxAge,
+            final MemoStore memoStore,
+            final ToLongFunction<? super T> valueWeigher) {
+        super(newMaxAge);
+
+        store = Objects.requireNonNull(memoStore,
+                "Memo store must be non-null");
+        weigher = Objects.requireNonNull(valueWeigher,
+                "Weigher must be non-null");
+    }
+
+    public BoundedMemoizableAction(
+            final Duration newMaxAge,
+            final boolean serveStale,
+            final Double refreshAheadFraction,
+            final MemoStore memoStore,
+            final ToLongFunction<? super T> valueWeigher) {
+        super(newMaxAge, serveStale, refreshAheadFraction);
+
+        store = Objects.requireNonNull(memoStore,
+                "Memo store must be non-null");
+        weigher = Objects.requireNonNull(valueWeigher,
+                "Weigher must be non-null");
+    }
+
+    @Override
+    protected void memoize(T item) {
+        if (item == null) {
+            clearEntry();
+        } else {
+            entry = store.put(
+                    entry,
+                    item,
+                    weigher.applyAsLong(item),
+                    getStats());
+        }
+    }
+
+    @Override
+    protected boolean hasValue() {
+        MemoStore.Entry<T> e = entry;
+
+        return e != null && e.isPresent();
+    }
+
+    @Override
+    protected T getMemoized() {
+        MemoStore.Entry<T> e = entry;
+
+        return e == null ? null : e.get(store);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+
+        clearEntry();
+    }
+
+    private void clearEntry() {
+        MemoStore.Entry<T> e = entry;
+        entry = null;
+
+        if (e != null) {
+            store.remove(e);
+        }
+    }
+
+    public MemoStore getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/*
+ * A memo computed from the value of another (parent) memo.
+ *
+ * It has no clock of its own: it is recomputed, once, the first
+ * time it is read after the parent memoized a new value, and is
+ * never refreshed otherwise. Reading it goes through the parent,
+ * so the parent's own expiry and refresh settings apply.
+ */
+public class DerivedMemoizableAction<P, T> extends MemoizableAction<T> {
+
+    /*
+     * How many times to re-read a parent that keeps refreshing while
+     * a value is derived, before settling for a value stamped stale.
+     */
+    private static final int MAX_DERIVE_ATTEMPTS = 3;
+
+    private final MemoizableAction<P> parent;
+    private final Function<? super P, ? extends T> derivation;
+    private volatile Derived<T> derived;
+    private volatile long pendingGeneration;
+
+    public DerivedMemoizableAction(
+            final MemoizableAction<P> parentMemo,
+            final Function<? super P, ? extends T> derivationFunc) {
+        parent = Objects.requireNonNull(parentMemo,
+                "Parent memo must be non-null");
+        derivation = Objects.requireNonNull(derivationFunc,
+                "Derivation function must be non-null");
+    }
+
+    @Override
+    public CompletableFuture<T> getResult() {
+        return parent.getResult()
+                .thenCompose(p -> super.getResult());
+    }
+
+    @Override
+    protected CompletableFuture<T> prepareAction() {
+        return derive(MAX_DERIVE_ATTEMPTS);
+    }
+
+    private CompletableFuture<T> derive(final int attempts) {
+        /*
+         * Take the generation before the parent's value. If the parent
+         * refreshes in between, the derived value is at worst stamped
+         * older than it is and derived again, never served as current
+         * when it is not.
+         */
+        long generation = parent.getGeneration();
+
+        return parent.getResult()
+                .thenCompose(p -> {
+                    if (attempts > 1 && parent.getGeneration() != generation) {
+                        return derive(attempts - 1);
+                    }
+
+                    pendingGeneration = generation;
+
+                    if (p == null) {
+                        /*
+                         * The parent failed or has nothing, there is
+                         * nothing to derive from until it recovers.
+                         */
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    return CompletableFuture.completedFuture(
+                            derivation.apply(p));
+                });
+    }
+
+    @Override
+    protected void memoize(T item) {
+        /*
+         * Like SoftRefMemoizableAction, a null (or failed) result
+         * is not memoized and will be retried on the next call.
+         */
+        derived = item == null
+                ? null
+                : new Derived<>(item, pendingGeneration);
+    }
+
+    @Override
+    protected boolean hasMemoized() {
+        Derived<T> d = derived;
+
+        return d != null && d.generation() == parent.getGeneration();
+    }
+
+    @Override
+    protected T getMemoized() {
+        Derived<T> d = derived;
+
+        return d == null ? null : d.value();
+    }
+
+    /*
+     * A failed derivation only backs off while the parent still holds
+     * the value it failed on, a new parent value is derived right away.
+     */
+    @Override
+    public boolean isBackingOff() {
+        return super.isBackingOff()
+                && pendingGeneration == parent.getGeneration();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+
+        derived = null;
+    }
+
+    public MemoizableAction<P> getParent() {
+        return parent;
+    }
+
+    private record Derived<T>(T value, long generation) {
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/*
+ * Max age, stale-while-revalidate and refresh-ahead handling,
+ * shared by memos regardless of where they keep their value.
+ */
+public abstract class ExpiringMemoizableAction<T>
+        extends MemoizableAction<T> {
+
+    /*
+     * Refresh a value in the background once it gets this
+     * fraction of its max age.
+     */
+    public static final double DEFAULT_REFRESH_AHEAD = 0.8;
+
+    private volatile Duration maxAge;
+    private volatile boolean staleWhileRevalidate;
+    private volatile Double refreshAhead;
+
+    public ExpiringMemoizableAction() {
+        // no-arg constructor
+    }
+
+    public ExpiringMemoizableAction(final Duration newMaxAge) {
+        maxAge = newMaxAge;
+    }
+
+    public ExpiringMemoizableAction(
+            final Duration newMaxAge,
+            final boolean serveStale,
+            final Double refreshAheadFraction) {
+        maxAge = newMaxAge;
+        staleWhileRevalidate = serveStale;
+        setRefreshAhead(refreshAheadFraction);
+    }
+
+    /*
+     * True if a value is held, regardless of its age.
+     */
+    protected abstract boolean hasValue();
+
+    @Override
+    protected boolean hasMemoized() {
+        return hasValue() && checkAge();
+    }
+
+    @Override
+    protected boolean isRefreshDue() {
+        Double fraction = refreshAhead;
+        Duration age = maxAge;
+
+        if (fraction == null || age == null) {
+            return false;
+        }
+
+        Duration ahead = Duration.ofNanos(
+                (long) (age.toNanos() * fraction));
+
+        return !getLastUpdated()
+                .isAfter(Instant.now().minus(ahead));
+    }
+
+    @Override
+    protected boolean canServeStale() {
+        return staleWhileRevalidate && hasMaxAge();
+    }
+
+    protected boolean checkAge() {
+        Duration age = maxAge;
+
+        return age == null
+                || getLastUpdated().isAfter(Instant.now().minus(age));
+    }
+
+    public boolean hasMaxAge() {
+        return maxAge != null;
+    }
+
+    public void setMaxAge(final Duration newMaxAge) {
+        maxAge = newMaxAge;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public boolean isStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(final boolean serveStale) {
+        staleWhileRevalidate = serveStale;
+    }
+
+    public boolean hasRefreshAhead() {
+        return refreshAhead != null;
+    }
+
+    public void setRefreshAhead(final Double fraction) {
+        if (fraction != null && (fraction <= 0 || fraction >= 1)) {
+            throw new IllegalArgumentException(
+                    "Refresh ahead must be a fraction between 0 and 1");
+        }
+
+        refreshAhead = fraction;
+    }
+
+    public Double getRefreshAhead() {
+        return refreshAhead;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Holds memoized values within a fixed byte budget, as estimated
+ * by each memo's weigher. When a new value does not fit, the least
+ * recently read values are evicted first (LRU).
+ *
+ * Unlike SoftReferences, which the GC tends to clear all at once,
+ * evictions here happen one value at a time and only when the
+ * budget is exceeded.
+ */
+public class MemoStore {
+
+    public static final String PROP_DEFAULT_BUDGET =
+            "io.mishmash.stacks.memo.store.bytes";
+    public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+
+    private final Set<Entry<?>> entries = ConcurrentHashMap.newKeySet();
+    private final AtomicLong weight = new AtomicLong(0);
+    private final AtomicLong clock = new AtomicLong(0);
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile long budget;
+
+    public MemoStore(final long budgetBytes) {
+        setBudget(budgetBytes);
+    }
+
+    public static MemoStore getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /*
+     * Replaces the value held in the given entry (or creates a new
+     * one if null) and returns it. Reads of the value go through
+     * the entry, without touching the store.
+     */
+    <T> Entry<T> put(
+            final Entry<T> existing,
+            final T value,
+            final long valueWeight,
+            final MemoizableActionStats stats) {
+        writeLock.lock();
+        try {
+            if (existing != null) {
+                remove(existing);
+            }
+
+            Entry<T> entry = new Entry<>(
+                    value,
+                    Math.max(0, valueWeight),
+                    stats,
+                    clock.incrementAndGet());
+            entries.add(entry);
+            weight.addAndGet(entry.weight);
+
+            evict(entry);
+
+            return entry;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void remove(final Entry<?> entry) {
+        writeLock.lock();
+        try {
+            if (entries.remove(entry)) {
+                weight.addAndGet(-entry.weight);
+                entry.value = null;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void evict(final Entry<?> keep) {
+        while (weight.get() > budget) {
+            Entry<?> victim = null;
+
+            for (Entry<?> e : entries) {
+                if (e != keep
+                        && (victim == null
+                            || e.lastAccess < victim.lastAccess)) {
+                    victim = e;
+                }
+            }
+
+            if (victim == null) {
+                // only the new value is left, keep it even if too big
+                return;
+            }
+
+            remove(victim);
+            victim.stats.recordEviction();
+        }
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public void setBudget(final long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException(
+                    "Memo store budget must be positive");
+        }
+
+        budget = budgetBytes;
+
+        writeLock.lock();
+        try {
+            evict(null);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public long getWeight() {
+        return weight.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    static final class Entry<T> {
+        private volatile T value;
+        private volatile long lastAccess;
+        private final long weight;
+        private final MemoizableActionStats stats;
+
+        private Entry(
+                final T newValue,
+                final long newWeight,
+                final MemoizableActionStats memoStats,
+                final long now) {
+            value = newValue;
+            weight = newWeight;
+            stats = memoStats;
+            lastAccess = now;
+        }
+
+        T get(final MemoStore store) {
+            T v = value;
+
+            if (v != null) {
+                lastAccess = store.clock.incrementAndGet();
+            }
+
+            return v;
+        }
+
+        boolean isPresent() {
+            return value != null;
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final MemoStore DEFAULT = new MemoStore(
+                Long.getLong(PROP_DEFAULT_BUDGET, DEFAULT_BUDGET));
+    }
+}
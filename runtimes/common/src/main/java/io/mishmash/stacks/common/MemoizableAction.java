@@ -17,16 +17,77 @@
 
 package io.mishmash.stacks.common;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 public abstract class MemoizableAction<T> {
 
-    private AtomicReference<CompletableFuture<Void>> futureRef =
+    public static final int DEFAULT_MAX_CONCURRENCY = 1;
+    public static final Duration DEFAULT_MIN_BACKOFF =
+            Duration.ofMillis(500);
+    public static final Duration DEFAULT_MAX_BACKOFF =
+            Duration.ofMinutes(1);
+
+    /*
+     * CLOSED - refreshes run as needed,
+     * OPEN - the last refresh failed, calls get the memoized
+     *      result of the failure (null or a stale value) without
+     *      starting a new refresh until the backoff expires,
+     * HALF_OPEN - the backoff expired, the next call makes a
+     *      single attempt to refresh.
+     */
+    public enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /*
+     * Holds the refresh that is currently running, or null when
+     * there is none. Only the thread that installs a new future
+     * here (with a CAS from null) gets to call prepareAction(),
+     * so concurrent callers of an expired memo all share one refresh.
+     */
+    private final AtomicReference<CompletableFuture<Void>> inFlight =
             new AtomicReference<>(null);
-    private Instant lastUpdated;
+    /*
+     * Written after memoize() and before the in-flight refresh is
+     * released, readers that see a new value here also see
+     * everything memoize() wrote.
+     */
+    private volatile Instant lastUpdated;
+    /*
+     * Incremented each time a new value is memoized, lets
+     * derived memos tell when they have to recompute.
+     */
+    private final AtomicLong generation = new AtomicLong(0);
+    /*
+     * Blocking refresh work goes through here, to the shared
+     * ActionExecutor, and not to the common ForkJoinPool.
+     */
+    private final BoundedExecutor executor = new BoundedExecutor(
+            ActionExecutors::getShared,
+            DEFAULT_MAX_CONCURRENCY);
+    private final MemoizableActionStats stats = new MemoizableActionStats();
+    private final long id;
+    private volatile String name;
+    private volatile Duration minBackoff = DEFAULT_MIN_BACKOFF;
+    private volatile Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+    /*
+     * Only written by the single in-flight refresh, null when
+     * the last refresh succeeded.
+     */
+    private volatile Failure failure;
+
+    protected MemoizableAction() {
+        id = MemoizableActionRegistry.register(this);
+    }
 
     protected abstract CompletableFuture<T> prepareAction();
     protected abstract void memoize(T item);
@@ -50,42 +111,260 @@ public abstract class MemoizableAction<T> {
 
     public void clear() {
         lastUpdated = Instant.MIN;
+        failure = null;
     }
 
     public CompletableFuture<T> getResult() {
-        if (hasMemoized()) {
+        if (isMemoized()) {
+            stats.recordHit();
+
+            if (isRefreshDue() && !isBackingOff()) {
+                // refresh ahead in the background
+                awaitCompletion();
+            }
+
+            return CompletableFuture.completedFuture(getMemoized());
+        }
+
+        if (canServeStale()) {
+            T stale = getMemoized();
+
+            if (stale != null) {
+                stats.recordHit();
+
+                if (!isBackingOff()) {
+                    // serve the stale value while one refresh runs
+                    awaitCompletion();
+                }
+
+                return CompletableFuture.completedFuture(stale);
+            }
+        }
+
+        if (isBackingOff()) {
+            // don't wait on a refresh that is likely to fail again
+            stats.recordShortCircuit();
+
             return CompletableFuture.completedFuture(getMemoized());
         }
 
+        stats.recordMiss();
+
         return awaitCompletion()
             .thenApply(v -> getMemoized());
     }
 
     protected CompletableFuture<Void> awaitCompletion() {
-        return futureRef
-                .updateAndGet(f -> f == null || !hasMemoized()
-                                        ? memoizeAction(prepareAction())
-                                        : f);
+        for (;;) {
+            CompletableFuture<Void> current = inFlight.get();
+            if (current != null) {
+                return current;
+            }
+
+            CompletableFuture<Void> next = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, next)) {
+                refresh(next);
+
+                return next;
+            }
+        }
     }
 
-    private Void memoizeInternal(final T item, final Throwable error) {
-        memoize(item);
-        lastUpdated = Instant.now();
+    protected boolean isMemoized() {
+        // volatile read first, to see what the last memoize() wrote
+        return lastUpdated != null && hasMemoized();
+    }
 
-        return null;
+    /*
+     * Override to have a still valid memoized value refreshed in
+     * the background before it expires.
+     */
+    protected boolean isRefreshDue() {
+        return false;
     }
 
-    private CompletableFuture<Void> memoizeAction(
-            final CompletableFuture<T> action) {
+    /*
+     * Override to allow an expired, but still available, memoized
+     * value to be returned while it is being refreshed.
+     */
+    protected boolean canServeStale() {
+        return false;
+    }
+
+    private void refresh(final CompletableFuture<Void> pending) {
+        /*
+         * Another refresh might have completed between the caller's
+         * check and our CAS, don't start a second one in that case.
+         */
+        if (isMemoized() && !isRefreshDue()) {
+            release(pending);
+
+            return;
+        }
+
+        long started = System.nanoTime();
+        CompletableFuture<T> action;
+        try {
+            action = prepareAction();
+        } catch (RuntimeException e) {
+            action = CompletableFuture.failedFuture(e);
+        }
+
         /*
          * Drop the original CompletableFuture<T> to
-         * release its reference to T. Replace with a
-         * null Void (returned by memoizeInternal()) instead.
+         * release its reference to T.
          */
-        return action.handle(this::memoizeInternal);
+        action.whenComplete((item, error) -> {
+            stats.recordRefresh(
+                    System.nanoTime() - started,
+                    error != null);
+
+            try {
+                if (error == null) {
+                    failure = null;
+                } else {
+                    recordFailure(error);
+                }
+
+                if (error != null && keepsOnFailure()) {
+                    /*
+                     * A background refresh failed, keep the value
+                     * we already have and let the next call retry.
+                     */
+                    return;
+                }
+
+                memoize(item);
+                lastUpdated = Instant.now();
+                generation.incrementAndGet();
+            } finally {
+                release(pending);
+            }
+        });
+    }
+
+    private void recordFailure(final Throwable error) {
+        Failure last = failure;
+        int count = last == null ? 1 : last.count() + 1;
+
+        failure = new Failure(
+                count,
+                error,
+                Instant.now().plus(nextBackoff(count)));
+    }
+
+    protected Duration nextBackoff(final int failures) {
+        long min = minBackoff.toMillis();
+        long max = maxBackoff.toMillis();
+        int shift = Math.min(failures - 1, 30);
+        // exponential, capped at max, then jittered in [half, full]
+        long exp = min > (max >> shift) ? max : min << shift;
+        long half = exp / 2;
+
+        return Duration.ofMillis(
+                half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    public boolean isBackingOff() {
+        Failure f = failure;
+
+        return f != null && Instant.now().isBefore(f.retryAt());
+    }
+
+    public CircuitState getCircuitState() {
+        Failure f = failure;
+
+        if (f == null) {
+            return CircuitState.CLOSED;
+        }
+
+        return Instant.now().isBefore(f.retryAt())
+                ? CircuitState.OPEN
+                : CircuitState.HALF_OPEN;
+    }
+
+    public int getConsecutiveFailures() {
+        Failure f = failure;
+
+        return f == null ? 0 : f.count();
+    }
+
+    public Throwable getLastFailure() {
+        Failure f = failure;
+
+        return f == null ? null : f.error();
+    }
+
+    public Duration getMinBackoff() {
+        return minBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setBackoff(
+            final Duration newMinBackoff,
+            final Duration newMaxBackoff) {
+        if (newMinBackoff.isNegative()
+                || newMaxBackoff.compareTo(newMinBackoff) < 0) {
+            throw new IllegalArgumentException("""
+                    Backoff must be non-negative and the max \
+                    backoff must not be less than the min""");
+        }
+
+        minBackoff = newMinBackoff;
+        maxBackoff = newMaxBackoff;
+    }
+
+    private boolean keepsOnFailure() {
+        return getMemoized() != null
+                && (isRefreshDue() || canServeStale());
+    }
+
+    private void release(final CompletableFuture<Void> pending) {
+        inFlight.compareAndSet(pending, null);
+        pending.complete(null);
     }
 
     public Instant getLastUpdated() {
         return lastUpdated;
     }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    protected Executor getExecutor() {
+        return executor;
+    }
+
+    public int getMaxConcurrency() {
+        return executor.getMaxConcurrency();
+    }
+
+    public void setMaxConcurrency(final int maxConcurrency) {
+        executor.setMaxConcurrency(maxConcurrency);
+    }
+
+    public MemoizableActionStats getStats() {
+        return stats;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        String n = name;
+
+        return n == null ? getClass().getName() : n;
+    }
+
+    public void setName(final String newName) {
+        name = newName;
+    }
+
+    private record Failure(int count, Throwable error, Instant retryAt) {
+    }
 }
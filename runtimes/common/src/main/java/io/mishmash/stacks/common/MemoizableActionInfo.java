@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/*
+ * A point-in-time view of a memoized action and its stats,
+ * suitable for JMX (as an MXBean composite type) and for shells.
+ */
+public class MemoizableActionInfo {
+
+    private final long id;
+    private final String name;
+    private final String type;
+    private final long hits;
+    private final long misses;
+    private final long refreshes;
+    private final long failures;
+    private final long softClears;
+    private final long shortCircuits;
+    private final long evictions;
+    private final String circuitState;
+    private final int consecutiveFailures;
+    private final long valueAgeMillis;
+    private final long maxAgeMillis;
+    private final long[] refreshLatencyHistogram;
+
+    public MemoizableActionInfo(final MemoizableAction<?> memo) {
+        MemoizableActionStats stats = memo.getStats();
+        Instant updated = memo.getLastUpdated();
+
+        id = memo.getId();
+        name = memo.getName();
+        type = memo.getClass().getName();
+        hits = stats.getHits();
+        misses = stats.getMisses();
+        refreshes = stats.getRefreshes();
+        failures = stats.getFailures();
+        softClears = stats.getSoftClears();
+        shortCircuits = stats.getShortCircuits();
+        evictions = stats.getEvictions();
+        circuitState = memo.getCircuitState().name();
+        consecutiveFailures = memo.getConsecutiveFailures();
+        refreshLatencyHistogram = stats.getRefreshLatencyHistogram();
+        valueAgeMillis = updated == null || Instant.MIN.equals(updated)
+                ? -1
+                : Duration.between(updated, Instant.now()).toMillis();
+
+        Duration maxAge = memo instanceof ExpiringMemoizableAction<?> s
+                ? s.getMaxAge()
+                : null;
+        maxAgeMillis = maxAge == null ? -1 : maxAge.toMillis();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getRefreshes() {
+        return refreshes;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getSoftClears() {
+        return softClears;
+    }
+
+    public long getShortCircuits() {
+        return shortCircuits;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public String getCircuitState() {
+        return circuitState;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public long getValueAgeMillis() {
+        return valueAgeMillis;
+    }
+
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    public long[] getRefreshLatencyHistogram() {
+        return refreshLatencyHistogram.clone();
+    }
+
+    public long[] getRefreshLatencyBucketsMillis() {
+        return MemoizableActionStats.getRefreshLatencyBucketsMillis();
+    }
+}
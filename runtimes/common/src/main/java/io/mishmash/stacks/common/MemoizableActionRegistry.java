@@ -0,0 +1,102 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Tracks every live MemoizableAction. Memos are held weakly, so
+ * registering does not keep a memo (or its owner) from being
+ * garbage collected.
+ */
+public final class MemoizableActionRegistry {
+
+    private static final AtomicLong nextId = new AtomicLong(0);
+    private static final Map<Long, MemoRef> memos =
+            new ConcurrentHashMap<>();
+    private static final ReferenceQueue<MemoizableAction<?>> collected =
+            new ReferenceQueue<>();
+
+    private MemoizableActionRegistry() {
+        // static utility
+    }
+
+    static long register(final MemoizableAction<?> memo) {
+        expunge();
+
+        long id = nextId.incrementAndGet();
+        memos.put(id, new MemoRef(id, memo));
+
+        return id;
+    }
+
+    public static List<MemoizableAction<?>> getAll() {
+        expunge();
+
+        return memos.values()
+                .stream()
+                .map(MemoRef::get)
+                .filter(Objects::nonNull)
+                .<MemoizableAction<?>>map(m -> m)
+                .sorted(Comparator.comparingLong(MemoizableAction::getId))
+                .toList();
+    }
+
+    public static List<MemoizableActionInfo> snapshot() {
+        return getAll()
+                .stream()
+                .map(MemoizableActionInfo::new)
+                .toList();
+    }
+
+    public static int size() {
+        expunge();
+
+        return memos.size();
+    }
+
+    public static void resetStats() {
+        getAll().forEach(m -> m.getStats().reset());
+    }
+
+    private static void expunge() {
+        MemoRef ref;
+        while ((ref = (MemoRef) collected.poll()) != null) {
+            memos.remove(ref.id);
+        }
+    }
+
+    private static final class MemoRef
+            extends WeakReference<MemoizableAction<?>> {
+
+        private final long id;
+
+        private MemoRef(final long memoId, final MemoizableAction<?> memo) {
+            super(memo, collected);
+            id = memoId;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MemoizableActionStats {
+
+    /*
+     * Upper bounds (exclusive) of the refresh latency histogram
+     * buckets, the last bucket counts everything above.
+     */
+    private static final long[] REFRESH_LATENCY_BUCKETS_MS = new long[] {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder softClears = new LongAdder();
+    private final LongAdder shortCircuits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLongArray refreshLatency =
+            new AtomicLongArray(REFRESH_LATENCY_BUCKETS_MS.length + 1);
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordRefresh(final long nanos, final boolean failed) {
+        refreshes.increment();
+
+        if (failed) {
+            failures.increment();
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < REFRESH_LATENCY_BUCKETS_MS.length
+                && millis >= REFRESH_LATENCY_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+
+        refreshLatency.incrementAndGet(bucket);
+    }
+
+    public void recordSoftClear() {
+        softClears.increment();
+    }
+
+    public void recordShortCircuit() {
+        shortCircuits.increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getSoftClears() {
+        return softClears.sum();
+    }
+
+    public long getShortCircuits() {
+        return shortCircuits.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long[] getRefreshLatencyHistogram() {
+        long[] res = new long[refreshLatency.length()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = refreshLatency.get(i);
+        }
+
+        return res;
+    }
+
+    public static long[] getRefreshLatencyBucketsMillis() {
+        return REFRESH_LATENCY_BUCKETS_MS.clone();
+    }
+
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        refreshes.reset();
+        failures.reset();
+        softClears.reset();
+        shortCircuits.reset();
+        evictions.reset();
+
+        for (int i = 0; i < refreshLatency.length(); i++) {
+            refreshLatency.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/*
+ * Registers the stacks' MBeans with the platform MBean server. A bean
+ * that fails to register is logged and skipped, JMX is never required
+ * for a component to work.
+ */
+public final class PlatformMBeans {
+
+    private static final Logger LOG = Logger.getLogger(
+            PlatformMBeans.class.getName());
+
+    private PlatformMBeans() {
+        // static utility
+    }
+
+    /*
+     * Returns the name the bean was registered with, or null if it
+     * was not registered. Pass the result to unregister() when the
+     * owning component stops.
+     */
+    public static ObjectName register(
+            final Object bean,
+            final String objectName) {
+        try {
+            ObjectName name = new ObjectName(objectName);
+
+            ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(bean, name);
+
+            return name;
+        } catch (JMException | SecurityException e) {
+            LOG.log(Level.WARNING,
+                    "Failed to register MBean " + objectName
+                        + ", it will not be available over JMX",
+                    e);
+
+            return null;
+        }
+    }
+
+    public static void unregister(final ObjectName name) {
+        if (name == null) {
+            return;
+        }
+
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                .unregisterMBean(name);
+        } catch (JMException | SecurityException e) {
+            LOG.log(Level.FINE, "Failed to unregister MBean " + name, e);
+        }
+    }
+}
@@ -19,63 +19,68 @@ package io.mishmash.stacks.common;
 
 import java.lang.ref.SoftReference;
 import java.time.Duration;
-import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
 
 public abstract class SoftRefMemoizableAction<T>
-        extends MemoizableAction<T> {
+        extends ExpiringMemoizableAction<T> {
 
-    private SoftReference<T> ref;
-    private Duration maxAge;
+    private final AtomicReference<SoftReference<T>> ref =
+            new AtomicReference<>(null);
 
     public SoftRefMemoizableAction() {
         // no-arg constructor
     }
 
     public SoftRefMemoizableAction(final Duration newMaxAge) {
-        maxAge = newMaxAge;
+        super(newMaxAge);
     }
 
-    @Override
-    protected void memoize(T item) {
-        ref = new SoftReference<>(item);
+    public SoftRefMemoizableAction(
+            final Duration newMaxAge,
+            final boolean serveStale,
+            final Double refreshAheadFraction) {
+        super(newMaxAge, serveStale, refreshAheadFraction);
     }
 
     @Override
-    protected boolean hasMemoized() {
-        return ref != null && !ref.refersTo(null)
-                && (hasMaxAge() ? checkAge() : true);
+    protected void memoize(T item) {
+        ref.set(item == null ? null : new SoftReference<>(item));
     }
 
     @Override
-    protected T getMemoized() {
-        return ref.get();
-    }
+    protected boolean hasValue() {
+        SoftReference<T> r = ref.get();
 
-    @Override
-    public void clear() {
-        super.clear();
+        if (r == null) {
+            return false;
+        }
 
-        if (ref != null) {
-            ref.clear();
+        if (r.refersTo(null)) {
+            // cleared by the GC, count it only once
+            if (ref.compareAndSet(r, null)) {
+                getStats().recordSoftClear();
+            }
+
+            return false;
         }
 
-        ref = null;
+        return true;
     }
 
-    protected boolean checkAge() {
-        return getLastUpdated()
-                .isAfter(Instant.now().minus(maxAge));
-    }
+    @Override
+    protected T getMemoized() {
+        SoftReference<T> r = ref.get();
 
-    public boolean hasMaxAge() {
-        return maxAge != null;
+        return r == null ? null : r.get();
     }
 
-    public void setMaxAge(final Duration newMaxAge) {
-        maxAge = newMaxAge;
-    }
+    @Override
+    public void clear() {
+        super.clear();
 
-    public Duration getMaxAge() {
-        return maxAge;
+        SoftReference<T> r = ref.getAndSet(null);
+        if (r != null) {
+            r.clear();
+        }
     }
 }
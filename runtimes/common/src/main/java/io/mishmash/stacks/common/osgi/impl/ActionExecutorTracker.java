@@ -0,0 +1,45 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common.osgi.impl;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+
+import io.mishmash.stacks.common.ActionExecutor;
+import io.mishmash.stacks.common.ActionExecutors;
+
+@Component(immediate=true)
+public class ActionExecutorTracker {
+
+    @Reference(
+            service=ActionExecutor.class,
+            cardinality=ReferenceCardinality.OPTIONAL,
+            policy=ReferencePolicy.DYNAMIC,
+            policyOption=ReferencePolicyOption.GREEDY)
+    protected void setActionExecutor(final ActionExecutor executor) {
+        ActionExecutors.setShared(executor);
+    }
+
+    protected void unsetActionExecutor(final ActionExecutor executor) {
+        ActionExecutors.unsetShared(executor);
+    }
+}
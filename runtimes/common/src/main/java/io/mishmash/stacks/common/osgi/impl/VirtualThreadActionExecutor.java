@@ -0,0 +1,57 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.common.osgi.impl;
+
+import java.util.concurrent.ExecutorService;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+
+import io.mishmash.stacks.common.ActionExecutor;
+import io.mishmash.stacks.common.ActionExecutors;
+
+/*
+ * The default ActionExecutor. Register another ActionExecutor
+ * service with a higher service.ranking to replace it.
+ */
+@Component(
+        service = {ActionExecutor.class},
+        immediate = true,
+        property = {"service.ranking:Integer=-1"}
+)
+public class VirtualThreadActionExecutor implements ActionExecutor {
+
+    private ExecutorService executor;
+
+    @Activate
+    protected void activate() {
+        executor = ActionExecutors.newVirtualThreadExecutor();
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        executor.execute(command);
+    }
+}
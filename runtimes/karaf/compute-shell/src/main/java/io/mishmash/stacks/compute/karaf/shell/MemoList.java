@@ -0,0 +1,114 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.compute.karaf.shell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.karaf.shell.api.action.Action;
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.Option;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.apache.karaf.shell.support.table.ShellTable;
+
+import io.mishmash.stacks.common.MemoizableActionInfo;
+import io.mishmash.stacks.common.MemoizableActionRegistry;
+import io.mishmash.stacks.common.MemoizableActionStats;
+
+@Service
+@Command(scope="stacks", name="memo-list", description="List memoized actions and their hit, miss and refresh stats")
+public class MemoList implements Action {
+
+    @Option(name="-n", aliases="--name", description="Only show memos with names containing this text", required=false, multiValued=false)
+    String nameOpt;
+
+    @Option(name="-l", aliases="--latency", description="Show the refresh latency histogram", required=false, multiValued=false)
+    Boolean latencyOpt = Boolean.FALSE;
+
+    @Option(name="-r", aliases="--reset", description="Reset all stats after printing them", required=false, multiValued=false)
+    Boolean resetOpt = Boolean.FALSE;
+
+    @Override
+    public Object execute() throws Exception {
+        List<MemoizableActionInfo> memos = MemoizableActionRegistry
+                .snapshot()
+                .stream()
+                .filter(m -> nameOpt == null || m.getName().contains(nameOpt))
+                .toList();
+
+        ShellTable tbl = new ShellTable();
+        tbl.column("ID");
+        tbl.column("Name");
+        tbl.column("Hits");
+        tbl.column("Misses");
+        tbl.column("Refreshes");
+        tbl.column("Failures");
+        tbl.column("Soft clears");
+        tbl.column("Circuit");
+        tbl.column("Age (ms)");
+        tbl.column("Max age (ms)");
+        if (latencyOpt) {
+            tbl.column("Refresh latency (" + getBucketsHeader() + ")");
+        }
+        tbl.emptyTableText("Memoized actions not found");
+
+        for (MemoizableActionInfo m : memos) {
+            List<Object> row = new ArrayList<>(List.of(
+                    m.getId(),
+                    m.getName(),
+                    m.getHits(),
+                    m.getMisses(),
+                    m.getRefreshes(),
+                    m.getFailures(),
+                    m.getSoftClears(),
+                    m.getCircuitState(),
+                    toText(m.getValueAgeMillis()),
+                    toText(m.getMaxAgeMillis())));
+
+            if (latencyOpt) {
+                row.add(Arrays.stream(m.getRefreshLatencyHistogram())
+                        .mapToObj(String::valueOf)
+                        .collect(Collectors.joining(" ")));
+            }
+
+            tbl.addRow().addContent(row.toArray());
+        }
+        tbl.print(System.out);
+
+        if (resetOpt) {
+            MemoizableActionRegistry.resetStats();
+        }
+
+        return null;
+    }
+
+    private String toText(final long millis) {
+        return millis < 0 ? "" : String.valueOf(millis);
+    }
+
+    private String getBucketsHeader() {
+        return Arrays.stream(
+                    MemoizableActionStats.getRefreshLatencyBucketsMillis())
+                .mapToObj(b -> "<" + b)
+                .collect(Collectors.joining(" "))
+                + " >=";
+    }
+}
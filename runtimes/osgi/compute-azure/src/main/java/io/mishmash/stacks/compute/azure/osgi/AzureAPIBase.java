@@ -57,7 +57,10 @@ public abstract class AzureAPIBase {
     private MemoizedIMDSIdentityInfo identity;
 
     private SoftRefMemoizableAction<String> tenantIdMemo
-        = new SoftRefMemoizableAction<String>(MAX_AGE_TENANT) {
+        = new SoftRefMemoizableAction<String>(
+                MAX_AGE_TENANT,
+                true,
+                SoftRefMemoizableAction.DEFAULT_REFRESH_AHEAD) {
             @Override
             protected CompletableFuture<String> prepareAction() {
                 return identity.getResult()
@@ -154,6 +157,12 @@ public abstract class AzureAPIBase {
             final MemoizedIMDSIdentityInfo imdsIdentity) {
         instance = imdsInstance;
         identity = imdsIdentity;
+
+        String prefix = getClass().getSimpleName() + ".";
+        tenantIdMemo.setName(prefix + "tenantId");
+        azProfileMemo.setName(prefix + "azProfile");
+        regionMemo.setName(prefix + "region");
+        resourceGroupMemo.setName(prefix + "resourceGroup");
     }
 
     protected AzureCloud getAzureCloudByName(String name) {
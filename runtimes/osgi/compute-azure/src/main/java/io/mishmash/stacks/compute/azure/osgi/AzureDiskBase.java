@@ -28,6 +28,7 @@ import com.azure.resourcemanager.compute.models.Disk;
 import io.mishmash.stacks.compute.azure.gen.openapi.imds.client.model.Compute;
 import io.mishmash.stacks.compute.azure.gen.openapi.imds.client.model.Instance;
 import io.mishmash.stacks.compute.azure.utils.AzureConstants;
+import io.mishmash.stacks.common.DerivedMemoizableAction;
 import io.mishmash.stacks.common.SoftRefMemoizableAction;
 import io.mishmash.stacks.compute.common.Storage;
 
@@ -35,61 +36,31 @@ public abstract class AzureDiskBase implements Storage {
 
     /*
      * Refresh the tier (and the Disk, as the tier comes
-     * from the Disk specs) once in a while. All others
-     * hardly change, so, don't refresh them.
+     * from the Disk specs) once in a while. The sku
+     * hardly changes, so, don't refresh it. The rest are
+     * derived from the instance metadata and are recomputed
+     * only when it changes.
+     *
+     * The refreshed ones are refreshed ahead of expiry and
+     * keep serving the last value while a refresh runs.
      */
     private static final Duration MAX_AGE_DISK =
             Duration.of(30, ChronoUnit.SECONDS);
     private static final Duration MAX_AGE_TIER =
             Duration.of(30, ChronoUnit.SECONDS);
-    private static final Duration MAX_AGE_ID = null;
-    private static final Duration MAX_AGE_MODEL = null;
-    private static final Duration MAX_AGE_SIZE = null;
-    private static final Duration MAX_AGE_EPHEMERAL = null;
     private static final Duration MAX_AGE_SKU = null;
 
-    private MemoizedIMDSInstance instance;
     private AzureCompute compute;
 
-    private SoftRefMemoizableAction<String> idMemo
-        = new SoftRefMemoizableAction<String>(MAX_AGE_ID) {
-            @Override
-            protected CompletableFuture<String> prepareAction() {
-                return instance.getResult()
-                        .thenApply(Instance::getCompute)
-                        .thenApply(c -> getDiskName(c));
-            }
-        };
-    private SoftRefMemoizableAction<String> modelMemo
-        = new SoftRefMemoizableAction<String>(MAX_AGE_MODEL) {
-            @Override
-            protected CompletableFuture<String> prepareAction() {
-                return instance.getResult()
-                        .thenApply(Instance::getCompute)
-                        .thenApply(c -> getDiskSku(c));
-            }
-        };
-    private SoftRefMemoizableAction<Long> sizeMemo
-        = new SoftRefMemoizableAction<Long>(MAX_AGE_SIZE) {
-            @Override
-            protected CompletableFuture<Long> prepareAction() {
-                return instance.getResult()
-                        .thenApply(Instance::getCompute)
-                        .thenApply(c -> getDiskSize(c))
-                        .thenApply(Long::valueOf);
-            }
-        };
-    private SoftRefMemoizableAction<Boolean> ephemeralMemo
-        = new SoftRefMemoizableAction<Boolean>(MAX_AGE_EPHEMERAL) {
-            @Override
-            protected CompletableFuture<Boolean> prepareAction() {
-                return instance.getResult()
-                        .thenApply(Instance::getCompute)
-                        .thenApply(c -> isDiskEphemeral(c));
-            }
-        };
+    private DerivedMemoizableAction<Instance, String> idMemo;
+    private DerivedMemoizableAction<Instance, String> modelMemo;
+    private DerivedMemoizableAction<Instance, Long> sizeMemo;
+    private DerivedMemoizableAction<Instance, Boolean> ephemeralMemo;
     private SoftRefMemoizableAction<Disk> diskMemo
-        = new SoftRefMemoizableAction<Disk>(MAX_AGE_DISK) {
+        = new SoftRefMemoizableAction<Disk>(
+                MAX_AGE_DISK,
+                true,
+                SoftRefMemoizableAction.DEFAULT_REFRESH_AHEAD) {
             @Override
             protected CompletableFuture<Disk> prepareAction() {
                 return idMemo.getResult()
@@ -107,7 +78,10 @@ public abstract class AzureDiskBase implements Storage {
             }
         };
     private SoftRefMemoizableAction<String> tierMemo
-        = new SoftRefMemoizableAction<String>(MAX_AGE_TIER) {
+        = new SoftRefMemoizableAction<String>(
+                MAX_AGE_TIER,
+                true,
+                SoftRefMemoizableAction.DEFAULT_REFRESH_AHEAD) {
             @Override
             protected CompletableFuture<String> prepareAction() {
                 return diskMemo.getResult()
@@ -121,8 +95,29 @@ public abstract class AzureDiskBase implements Storage {
     public AzureDiskBase(
             final MemoizedIMDSInstance imdsInstance,
             final AzureCompute computeService) {
-        instance = imdsInstance;
         compute = computeService;
+
+        idMemo = new DerivedMemoizableAction<>(
+                imdsInstance,
+                i -> getDiskName(i.getCompute()));
+        modelMemo = new DerivedMemoizableAction<>(
+                imdsInstance,
+                i -> getDiskSku(i.getCompute()));
+        sizeMemo = new DerivedMemoizableAction<>(
+                imdsInstance,
+                i -> Long.valueOf(getDiskSize(i.getCompute())));
+        ephemeralMemo = new DerivedMemoizableAction<>(
+                imdsInstance,
+                i -> isDiskEphemeral(i.getCompute()));
+
+        String prefix = getClass().getSimpleName() + ".";
+        idMemo.setName(prefix + "id");
+        modelMemo.setName(prefix + "model");
+        sizeMemo.setName(prefix + "size");
+        ephemeralMemo.setName(prefix + "ephemeral");
+        diskMemo.setName(prefix + "disk");
+        skuMemo.setName(prefix + "sku");
+        tierMemo.setName(prefix + "tier");
     }
 
     protected abstract String getDiskName(Compute c);
@@ -115,6 +115,12 @@ public class AzureNetworkAccess implements NetworkAccess {
         this.localAddr = addr;
         this.instance = metadataService;
         this.lb = loadBalancerService;
+
+        String prefix = getClass().getSimpleName() + "[" + addr + "].";
+        prefixMemo.setName(prefix + "prefix");
+        macMemo.setName(prefix + "mac");
+        imdsExternalAddrMemo.setName(prefix + "imdsExternalAddr");
+        lbExternalAddrMemo.setName(prefix + "lbExternalAddr");
     }
 
     protected short getPrefix(final List<NetworkInterface> ifaces) {
@@ -17,17 +17,14 @@
 
 package io.mishmash.stacks.compute.azure.osgi;
 
-import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
-import io.mishmash.stacks.compute.azure.gen.openapi.imds.client.model.Compute;
 import io.mishmash.stacks.compute.azure.gen.openapi.imds.client.model.Instance;
-import io.mishmash.stacks.common.SoftRefMemoizableAction;
+import io.mishmash.stacks.common.DerivedMemoizableAction;
 import io.mishmash.stacks.compute.common.ComputeProvider;
 import io.mishmash.stacks.compute.common.Placement;
 import io.mishmash.stacks.compute.common.PlacementDomain;
@@ -40,70 +37,38 @@ import io.mishmash.stacks.compute.common.PlacementZone;
 public class AzurePlacement implements Placement {
 
     /*
-     * Don't refresh settings, they won't change without the VM
-     * being restarted.
+     * Derived from the instance metadata, recomputed only when
+     * a refresh of it brings a new value.
      */
-    private static final Duration MAX_AGE_REGION = null;
-    private static final Duration MAX_AGE_ZONE = null;
-    private static final Duration MAX_AGE_GROUP = null;
-    private static final Duration MAX_AGE_UPDATE_DOMAIN = null;
-    private static final Duration MAX_AGE_FAULT_DOMAIN = null;
+    private DerivedMemoizableAction<Instance, String> regionMemo;
+    private DerivedMemoizableAction<Instance, String> zoneMemo;
+    private DerivedMemoizableAction<Instance, String> groupMemo;
+    private DerivedMemoizableAction<Instance, String> updateDomainMemo;
+    private DerivedMemoizableAction<Instance, String> faultDomainMemo;
 
-    private MemoizedIMDSInstance instance;
     private AzureProvider azure;
 
-    private SoftRefMemoizableAction<String> regionMemo
-        = new SoftRefMemoizableAction<String>(MAX_AGE_REGION) {
-            @Override
-            protected CompletableFuture<String> prepareAction() {
-                return instance.getResult()
-                        .thenApply(Instance::getCompute)
-                        .thenApply(Compute::getLocation);
-            }
-        };
-    private SoftRefMemoizableAction<String> zoneMemo
-        = new SoftRefMemoizableAction<String>(MAX_AGE_ZONE) {
-            @Override
-            protected CompletableFuture<String> prepareAction() {
-                return instance.getResult()
-                        .thenApply(Instance::getCompute)
-                        .thenApply(Compute::getZone);
-            }
-        };
-    private SoftRefMemoizableAction<String> groupMemo
-        = new SoftRefMemoizableAction<String>(MAX_AGE_GROUP) {
-            @Override
-            protected CompletableFuture<String> prepareAction() {
-                return instance.getResult()
-                        .thenApply(Instance::getCompute)
-                        .thenApply(Compute::getPlacementGroupId);
-            }
-        };
-    private SoftRefMemoizableAction<String> updateDomainMemo
-        = new SoftRefMemoizableAction<String>(MAX_AGE_UPDATE_DOMAIN) {
-            @Override
-            protected CompletableFuture<String> prepareAction() {
-                return instance.getResult()
-                        .thenApply(Instance::getCompute)
-                        .thenApply(Compute::getPlatformUpdateDomain);
-            }
-        };
-    private SoftRefMemoizableAction<String> faultDomainMemo
-        = new SoftRefMemoizableAction<String>(MAX_AGE_FAULT_DOMAIN) {
-            @Override
-            protected CompletableFuture<String> prepareAction() {
-                return instance.getResult()
-                        .thenApply(Instance::getCompute)
-                        .thenApply(Compute::getPlatformFaultDomain);
-            }
-        };
-
     @Activate
     public AzurePlacement(
             @Reference final MemoizedIMDSInstance imdsService,
             @Reference final AzureProvider azureProvider) {
-        instance = imdsService;
         azure = azureProvider;
+
+        regionMemo = new DerivedMemoizableAction<>(
+                imdsService,
+                i -> i.getCompute().getLocation());
+        zoneMemo = new DerivedMemoizableAction<>(
+                imdsService,
+                i -> i.getCompute().getZone());
+        groupMemo = new DerivedMemoizableAction<>(
+                imdsService,
+                i -> i.getCompute().getPlacementGroupId());
+        updateDomainMemo = new DerivedMemoizableAction<>(
+                imdsService,
+                i -> i.getCompute().getPlatformUpdateDomain());
+        faultDomainMemo = new DerivedMemoizableAction<>(
+                imdsService,
+                i -> i.getCompute().getPlatformFaultDomain());
     }
 
     @Override
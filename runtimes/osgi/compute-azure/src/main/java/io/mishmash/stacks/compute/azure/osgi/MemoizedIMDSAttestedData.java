@@ -55,7 +55,7 @@ public class MemoizedIMDSAttestedData
                             AzureConstants.IMDS_PARAM_META,
                             null)
                     .orTimeout(2, TimeUnit.SECONDS)
-                    .whenComplete(this::actionPostRun);
+                    .whenCompleteAsync(this::actionPostRun, getExecutor());
         } catch (ApiException e) {
             return CompletableFuture.failedFuture(e);
         }
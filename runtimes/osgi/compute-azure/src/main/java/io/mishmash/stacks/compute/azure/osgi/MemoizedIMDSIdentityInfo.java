@@ -43,7 +43,7 @@ public class MemoizedIMDSIdentityInfo
             Duration.of(1, ChronoUnit.MINUTES);
 
     public MemoizedIMDSIdentityInfo() {
-        super(DEFAULT_MAX_AGE);
+        super(DEFAULT_MAX_AGE, true, DEFAULT_REFRESH_AHEAD);
     }
 
     @Override
@@ -54,7 +54,7 @@ public class MemoizedIMDSIdentityInfo
                             AzureConstants.IMDS_PARAM_META,
                             AzureConstants.IMDS_VER_IDENTITY_INFO)
                     .orTimeout(2, TimeUnit.SECONDS)
-                    .whenComplete(this::postRunAction);
+                    .whenCompleteAsync(this::postRunAction, getExecutor());
         } catch (ApiException e) {
             return CompletableFuture.failedFuture(e);
         }
@@ -30,11 +30,12 @@ import io.mishmash.stacks.compute.azure.gen.openapi.imds.ApiException;
 import io.mishmash.stacks.compute.azure.gen.openapi.imds.client.api.DefaultApi;
 import io.mishmash.stacks.compute.azure.gen.openapi.imds.client.model.Instance;
 import io.mishmash.stacks.compute.azure.utils.AzureConstants;
-import io.mishmash.stacks.common.SoftRefMemoizableAction;
+import io.mishmash.stacks.common.BoundedMemoizableAction;
+import io.mishmash.stacks.common.MemoStore;
 
 @Component(service={MemoizedIMDSInstance.class}, immediate=true)
 public class MemoizedIMDSInstance
-        extends SoftRefMemoizableAction<Instance> {
+        extends BoundedMemoizableAction<Instance> {
 
     private static final Logger LOG = Logger.getLogger(
             MemoizedIMDSInstance.class.getName());
@@ -42,8 +43,18 @@ public class MemoizedIMDSInstance
     private static final Duration DEFAULT_MAX_AGE =
             Duration.of(1, ChronoUnit.MINUTES);
 
+    /*
+     * A rough estimate of a parsed instance metadata document,
+     * used to account for it in the memo store budget.
+     */
+    private static final long INSTANCE_WEIGHT = 16 * 1024;
+
     public MemoizedIMDSInstance() {
-        super(DEFAULT_MAX_AGE);
+        super(DEFAULT_MAX_AGE,
+                true,
+                DEFAULT_REFRESH_AHEAD,
+                MemoStore.getDefault(),
+                i -> INSTANCE_WEIGHT);
     }
 
     @Override
@@ -54,7 +65,7 @@ public class MemoizedIMDSInstance
                             AzureConstants.IMDS_VER_INSTANCE,
                             AzureConstants.IMDS_PARAM_META)
                     .orTimeout(2, TimeUnit.SECONDS)
-                    .whenComplete(this::actionPostRun);
+                    .whenCompleteAsync(this::actionPostRun, getExecutor());
         } catch (ApiException e) {
             return CompletableFuture.failedFuture(e);
         }
@@ -54,7 +54,7 @@ public class MemoizedIMDSScheduledEvents
                             AzureConstants.IMDS_VER_SCHEDULED_EVENTS,
                             AzureConstants.IMDS_PARAM_META)
                     .orTimeout(2, TimeUnit.SECONDS)
-                    .whenComplete(this::postRunAction);
+                    .whenCompleteAsync(this::postRunAction, getExecutor());
         } catch (ApiException e) {
             return CompletableFuture.failedFuture(e);
         }
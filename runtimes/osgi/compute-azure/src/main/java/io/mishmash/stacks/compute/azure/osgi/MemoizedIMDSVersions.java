@@ -55,7 +55,7 @@ public class MemoizedIMDSVersions extends SoftRefMemoizableAction<Versions> {
             return new DefaultApi()
                 .getVersions(AzureConstants.IMDS_PARAM_META)
                 .orTimeout(2, TimeUnit.SECONDS)
-                .whenComplete(this::postRunAction);
+                .whenCompleteAsync(this::postRunAction, getExecutor());
         } catch (ApiException e) {
             return CompletableFuture.failedFuture(e);
         }
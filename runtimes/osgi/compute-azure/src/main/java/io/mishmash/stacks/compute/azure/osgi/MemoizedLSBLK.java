@@ -34,11 +34,12 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import io.mishmash.stacks.common.SoftRefMemoizableAction;
+import io.mishmash.stacks.common.BoundedMemoizableAction;
+import io.mishmash.stacks.common.MemoStore;
 
 @Component(service={MemoizedLSBLK.class}, immediate=true)
 public class MemoizedLSBLK extends
-        SoftRefMemoizableAction<Collection<OsDiskPartition>> {
+        BoundedMemoizableAction<Collection<OsDiskPartition>> {
 
     private static final Logger LOG = Logger.getLogger(
             MemoizedLSBLK.class.getName());
@@ -46,6 +47,12 @@ public class MemoizedLSBLK extends
     private static final Duration DEFAULT_MAX_AGE =
             Duration.of(30, ChronoUnit.SECONDS);
 
+    /*
+     * A rough estimate of one parsed partition, used to account
+     * for the partitions list in the memo store budget.
+     */
+    private static final long PARTITION_WEIGHT = 512;
+
     public static final String[] DEFAULT_CMD = new String[] {
             "/usr/bin/lsblk",
             "-o",
@@ -68,7 +75,9 @@ public class MemoizedLSBLK extends
     protected static final String F_CHILDREN = "children";
 
     public MemoizedLSBLK() {
-        super(DEFAULT_MAX_AGE);
+        super(DEFAULT_MAX_AGE,
+                MemoStore.getDefault(),
+                c -> c.size() * PARTITION_WEIGHT);
     }
 
     @Override
@@ -84,7 +93,7 @@ public class MemoizedLSBLK extends
                 } catch (IOException e) {
                     throw new UncheckedIOException(e);
                 }
-            }).whenComplete((c, e) -> {
+            }, getExecutor()).whenComplete((c, e) -> {
                 if (e != null) {
                     LOG.log(Level.SEVERE, """
                             Could not run lsblk to get disk devices, \
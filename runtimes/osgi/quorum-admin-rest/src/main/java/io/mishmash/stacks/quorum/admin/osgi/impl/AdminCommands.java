@@ -0,0 +1,44 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+
+package io.mishmash.stacks.quorum.admin.osgi.impl;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+
+import io.mishmash.stacks.quorum.admin.SnapshotExportCommand;
+
+/*
+ * Adds the admin commands of this bundle to the ones served by the
+ * admin server.
+ *
+ * The server cannot see the classes of this bundle, so the commands
+ * are registered from here. Registered commands cannot be removed,
+ * they stay until the server bundle is refreshed - which happens when
+ * this bundle goes away, as the server imports the Jetty admin server
+ * from it.
+ */
+@Component(immediate=true)
+public class AdminCommands {
+
+    @Activate
+    protected void activate() {
+        SnapshotExportCommand.register();
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.zookeeper.AddWatchMode;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.OpResult;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.data.Stat;
+
+import io.mishmash.stacks.common.ActionExecutors;
+
+/**
+ * A {@link CompletableFuture} based view of a {@link ZooKeeper} client.
+ *
+ * Requests are sent through the asynchronous client methods and never
+ * block the calling thread. The returned futures are completed on an
+ * executor instead of the client event thread, so dependent stages
+ * may block without holding up other callbacks and watch events.
+ * Unless another executor is given, completions run on the shared
+ * {@link ActionExecutors} executor - by default a virtual thread per
+ * completion. The executor is also the default one for the
+ * {@code *Async} stages of the returned futures.
+ */
+public class AsyncZooKeeper implements AutoCloseable {
+
+    /**
+     * The data and stat of a znode.
+     *
+     * @param data the znode data
+     * @param stat the znode stat
+     */
+    public record NodeData(byte[] data, Stat stat) {
+    }
+
+    private final ZooKeeper zk;
+    private final Executor executor;
+
+    /**
+     * Create a facade completing on the shared action executor.
+     *
+     * @param client the client to send requests through
+     */
+    public AsyncZooKeeper(final ZooKeeper client) {
+        // looked up on each use, to follow ActionExecutor service changes
+        this(client, r -> ActionExecutors.getShared().execute(r));
+    }
+
+    /**
+     * Create a facade completing on the given executor.
+     *
+     * @param client the client to send requests through
+     * @param completionExecutor the executor to complete futures on
+     */
+    public AsyncZooKeeper(
+            final ZooKeeper client,
+            final Executor completionExecutor) {
+        zk = client;
+        executor = completionExecutor;
+    }
+
+    /**
+     * Get the underlying client.
+     *
+     * @return the client
+     */
+    public ZooKeeper getClient() {
+        return zk;
+    }
+
+    /**
+     * Get the data and stat of a znode.
+     *
+     * @param path the znode path
+     * @param watcher a watcher to leave on the znode, or null
+     * @return the data and stat
+     */
+    public CompletableFuture<NodeData> getData(
+            final String path,
+            final Watcher watcher) {
+        Result<NodeData> res = new Result<>(executor);
+
+        try {
+            zk.getData(path, watcher, (rc, p, ctx, data, stat) -> {
+                if (ok(rc)) {
+                    res.succeed(new NodeData(data, stat));
+                } else {
+                    res.fail(KeeperException.create(code(rc), p));
+                }
+            }, null);
+        } catch (RuntimeException e) {
+            res.completeExceptionally(e);
+        }
+
+        return res;
+    }
+
+    /**
+     * Get the data and stat of a znode without leaving a watch.
+     *
+     * @param path the znode path
+     * @return the data and stat
+     */
+    public CompletableFuture<NodeData> getData(final String path) {
+        return getData(path, null);
+    }
+
+    /**
+     * Get the names of the children of a znode.
+     *
+     * @param path the znode path
+     * @param watcher a watcher to leave on the znode, or null
+     * @return the children names
+     */
+    public CompletableFuture<List<String>> getChildren(
+            final String path,
+            final Watcher watcher) {
+        Result<List<String>> res = new Result<>(executor);
+
+        try {
+            zk.getChildren(path, watcher, (rc, p, ctx, children) -> {
+                if (ok(rc)) {
+                    res.succeed(children);
+                } else {
+                    res.fail(KeeperException.create(code(rc), p));
+                }
+            }, null);
+        } catch (RuntimeException e) {
+            res.completeExceptionally(e);
+        }
+
+        return res;
+    }
+
+    /**
+     * Get the names of the children of a znode without leaving a watch.
+     *
+     * @param path the znode path
+     * @return the children names
+     */
+    public CompletableFuture<List<String>> getChildren(final String path) {
+        return getChildren(path, null);
+    }
+
+    /**
+     * Create a znode.
+     *
+     * @param path the znode path
+     * @param data the initial data
+     * @param acl the acl of the znode
+     * @param mode the znode type
+     * @return the actual path of the created znode
+     */
+    public CompletableFuture<String> create(
+            final String path,
+            final byte[] data,
+            final List<ACL> acl,
+            final CreateMode mode) {
+        Result<String> res = new Result<>(executor);
+
+        try {
+            zk.create(path, data, acl, mode, (rc, p, ctx, name) -> {
+                if (ok(rc)) {
+                    res.succeed(name);
+                } else {
+                    res.fail(KeeperException.create(code(rc), p));
+                }
+            }, null);
+        } catch (RuntimeException e) {
+            res.completeExceptionally(e);
+        }
+
+        return res;
+    }
+
+    /**
+     * Run operations in a single transaction.
+     *
+     * Like {@link ZooKeeper#multi(Iterable, org.apache.zookeeper.AsyncCallback.MultiCallback, Object)},
+     * a transaction rejected by the quorum completes normally, with an
+     * {@link OpResult.ErrorResult} for each of its operations. The
+     * future only fails when there are no results, for example on
+     * a lost connection.
+     *
+     * @param ops the operations
+     * @return the results of the operations
+     */
+    public CompletableFuture<List<OpResult>> multi(final Iterable<Op> ops) {
+        Result<List<OpResult>> res = new Result<>(executor);
+
+        try {
+            zk.multi(ops, (rc, p, ctx, results) -> {
+                if (results != null) {
+                    res.succeed(results);
+                } else {
+                    res.fail(KeeperException.create(code(rc)));
+                }
+            }, null);
+        } catch (RuntimeException e) {
+            res.completeExceptionally(e);
+        }
+
+        return res;
+    }
+
+    /**
+     * Wait for the connected server to catch up with the leader.
+     *
+     * @param path the znode path to sync
+     * @return completes once the server is in sync
+     */
+    public CompletableFuture<Void> sync(final String path) {
+        Result<Void> res = new Result<>(executor);
+
+        try {
+            zk.sync(path, (rc, p, ctx) -> complete(res, rc, p), null);
+        } catch (RuntimeException e) {
+            res.completeExceptionally(e);
+        }
+
+        return res;
+    }
+
+    /**
+     * Add a persistent watch to a znode.
+     *
+     * @param path the znode path
+     * @param watcher the watcher
+     * @param mode the type of the watch
+     * @return completes once the watch is in place
+     */
+    public CompletableFuture<Void> addWatch(
+            final String path,
+            final Watcher watcher,
+            final AddWatchMode mode) {
+        Result<Void> res = new Result<>(executor);
+
+        try {
+            zk.addWatch(path, watcher, mode,
+                    (rc, p, ctx) -> complete(res, rc, p), null);
+        } catch (RuntimeException e) {
+            res.completeExceptionally(e);
+        }
+
+        return res;
+    }
+
+    /**
+     * Nothing to release, the executor is either shared or owned by
+     * the caller. Kept so the facade can be managed with the client.
+     */
+    @Override
+    public void close() {
+        // nothing to close
+    }
+
+    private static void complete(
+            final Result<Void> res,
+            final int rc,
+            final String path) {
+        if (ok(rc)) {
+            res.succeed(null);
+        } else {
+            res.fail(KeeperException.create(code(rc), path));
+        }
+    }
+
+    private static boolean ok(final int rc) {
+        return rc == KeeperException.Code.OK.intValue();
+    }
+
+    private static KeeperException.Code code(final int rc) {
+        return KeeperException.Code.get(rc);
+    }
+
+    /*
+     * A future completed through the completion executor, which is also
+     * the default for its async stages.
+     */
+    private static final class Result<T> extends CompletableFuture<T> {
+
+        private final Executor executor;
+
+        Result(final Executor completionExecutor) {
+            executor = completionExecutor;
+        }
+
+        @Override
+        public Executor defaultExecutor() {
+            return executor;
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return new Result<>(executor);
+        }
+
+        void succeed(final T value) {
+            run(() -> complete(value));
+        }
+
+        void fail(final Throwable t) {
+            run(() -> completeExceptionally(t));
+        }
+
+        private void run(final Runnable r) {
+            try {
+                executor.execute(r);
+            } catch (RejectedExecutionException e) {
+                r.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.OpResult;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.data.Stat;
+
+/**
+ * Merges write operations submitted around the same time into
+ * {@link ZooKeeper#multi(Iterable, org.apache.zookeeper.AsyncCallback.MultiCallback, Object)}
+ * requests, saving a round-trip per operation.
+ *
+ * Operations are sent when a batch reaches its maximum number of
+ * operations or size, or when the oldest queued operation has waited
+ * for the maximum delay.
+ *
+ * Only one batch is in flight at a time, so operations reach the
+ * quorum in the order they were submitted. Operations queued while a
+ * batch is in flight go out, in the next batch, as soon as it completes.
+ *
+ * Batched operations are expected to be independent of each other.
+ * A multi request is atomic, so when one of its operations fails the
+ * quorum rolls back all of them. In that case the failed operation
+ * completes with its error and the rest are sent again, ahead of any
+ * newer operations.
+ *
+ * Futures are completed on the client event thread.
+ */
+public class BatchingWriter implements AutoCloseable {
+
+    /**
+     * The default maximum number of operations in a batch.
+     */
+    public static final int DEFAULT_MAX_OPS = 128;
+
+    /**
+     * The default maximum time an operation waits for its batch.
+     */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(2);
+
+    /**
+     * The default maximum estimated size of a batch, well below
+     * the default jute.maxbuffer.
+     */
+    public static final int DEFAULT_MAX_BYTES = 512 * 1024;
+
+    /*
+     * Estimated size of an operation, on top of its path and data.
+     */
+    private static final int OP_OVERHEAD = 64;
+
+    private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "quorum-batching-writer");
+                t.setDaemon(true);
+
+                return t;
+            });
+
+    private final ZooKeeper zk;
+    private final int maxOps;
+    private final long maxDelayNanos;
+    private final int maxBytes;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder ops = new LongAdder();
+    private final LongAdder resent = new LongAdder();
+
+    /* guarded by this */
+    private final Deque<Pending> queue = new ArrayDeque<>();
+    private int queuedBytes;
+    private boolean flushScheduled;
+    private boolean sending;
+    private boolean closed;
+
+    private record Pending(
+            Op op,
+            int bytes,
+            CompletableFuture<OpResult> result) {
+    }
+
+    /**
+     * Create a batching writer with the default limits.
+     *
+     * @param client the client to send batches through
+     */
+    public BatchingWriter(final ZooKeeper client) {
+        this(client, DEFAULT_MAX_OPS, DEFAULT_MAX_DELAY, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Create a batching writer.
+     *
+     * @param client the client to send batches through
+     * @param maxBatchOps the maximum number of operations in a batch
+     * @param maxDelay the maximum time an operation waits for its batch
+     * @param maxBatchBytes the maximum estimated size of a batch
+     */
+    public BatchingWriter(
+            final ZooKeeper client,
+            final int maxBatchOps,
+            final Duration maxDelay,
+            final int maxBatchBytes) {
+        if (maxBatchOps < 1) {
+            throw new IllegalArgumentException(
+                    "A batch must hold at least one operation");
+        }
+
+        zk = client;
+        maxOps = maxBatchOps;
+        maxDelayNanos = maxDelay.toNanos();
+        maxBytes = maxBatchBytes;
+    }
+
+    /**
+     * Create a znode, see {@link ZooKeeper#create(String, byte[], List, CreateMode)}.
+     *
+     * @param path the znode path
+     * @param data the initial data
+     * @param acl the acl of the znode
+     * @param mode the znode type
+     * @return the actual path of the created znode
+     */
+    public CompletableFuture<String> create(
+            final String path,
+            final byte[] data,
+            final List<ACL> acl,
+            final CreateMode mode) {
+        return submit(Op.create(path, data, acl, mode), weight(path, data))
+                .thenApply(r -> ((OpResult.CreateResult) r).getPath());
+    }
+
+    /**
+     * Set the data of a znode, see {@link ZooKeeper#setData(String, byte[], int)}.
+     *
+     * @param path the znode path
+     * @param data the new data
+     * @param version the expected version, or -1 for any
+     * @return the stat of the znode after the update
+     */
+    public CompletableFuture<Stat> setData(
+            final String path,
+            final byte[] data,
+            final int version) {
+        return submit(Op.setData(path, data, version), weight(path, data))
+                .thenApply(r -> ((OpResult.SetDataResult) r).getStat());
+    }
+
+    /**
+     * Delete a znode, see {@link ZooKeeper#delete(String, int)}.
+     *
+     * @param path the znode path
+     * @param version the expected version, or -1 for any
+     * @return completes once the znode is deleted
+     */
+    public CompletableFuture<Void> delete(
+            final String path,
+            final int version) {
+        return submit(Op.delete(path, version), weight(path, null))
+                .thenApply(r -> null);
+    }
+
+    /**
+     * Queue any operation supported by multi requests.
+     *
+     * @param op the operation
+     * @return the result of the operation
+     */
+    public CompletableFuture<OpResult> submit(final Op op) {
+        return submit(op, weight(op.getPath(), null));
+    }
+
+    /**
+     * Send the queued operations without waiting for the maximum delay.
+     *
+     * If a batch is already in flight the queued operations
+     * follow as soon as it completes.
+     */
+    public void flush() {
+        List<Pending> batch;
+
+        synchronized (this) {
+            if (sending || queue.isEmpty()) {
+                return;
+            }
+
+            sending = true;
+            batch = poll();
+        }
+
+        send(batch);
+    }
+
+    /**
+     * Send the queued operations and refuse any new ones.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+
+        flush();
+    }
+
+    /**
+     * Get the number of multi requests sent.
+     *
+     * @return the count of batches
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Get the number of operations sent, resent ones included.
+     *
+     * @return the count of operations
+     */
+    public long getOps() {
+        return ops.sum();
+    }
+
+    /**
+     * Get the number of operations sent again after
+     * another operation in their batch failed.
+     *
+     * @return the count of resent operations
+     */
+    public long getResent() {
+        return resent.sum();
+    }
+
+    private CompletableFuture<OpResult> submit(final Op op, final int bytes) {
+        CompletableFuture<OpResult> res = new CompletableFuture<>();
+        boolean full;
+
+        synchronized (this) {
+            if (closed) {
+                res.completeExceptionally(new IllegalStateException(
+                        "Batching writer is closed"));
+
+                return res;
+            }
+
+            queue.addLast(new Pending(op, bytes, res));
+            queuedBytes += bytes;
+
+            full = queue.size() >= maxOps || queuedBytes >= maxBytes;
+
+            if (!full && !flushScheduled) {
+                flushScheduled = true;
+                TIMER.schedule(
+                        this::scheduledFlush,
+                        maxDelayNanos,
+                        TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (full) {
+            flush();
+        }
+
+        return res;
+    }
+
+    private void scheduledFlush() {
+        synchronized (this) {
+            flushScheduled = false;
+        }
+
+        flush();
+    }
+
+    /*
+     * Take the next batch off the queue, call with the lock held.
+     */
+    private List<Pending> poll() {
+        List<Pending> batch = new ArrayList<>();
+        int bytes = 0;
+
+        while (!queue.isEmpty() && batch.size() < maxOps) {
+            Pending p = queue.peekFirst();
+            if (!batch.isEmpty() && bytes + p.bytes() > maxBytes) {
+                break;
+            }
+
+            queue.removeFirst();
+            queuedBytes -= p.bytes();
+            bytes += p.bytes();
+            batch.add(p);
+        }
+
+        return batch;
+    }
+
+    private void send(final List<Pending> batch) {
+        List<Op> multi = new ArrayList<>(batch.size());
+        batch.forEach(p -> multi.add(p.op()));
+
+        batches.increment();
+        ops.add(batch.size());
+
+        try {
+            zk.multi(multi, (rc, path, ctx, results) -> {
+                if (rc == KeeperException.Code.OK.intValue()) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).result().complete(results.get(i));
+                    }
+                } else {
+                    failed(batch, rc, results);
+                }
+
+                sent();
+            }, null);
+        } catch (RuntimeException e) {
+            batch.forEach(p -> p.result().completeExceptionally(e));
+
+            sent();
+        }
+    }
+
+    /*
+     * The batch in flight completed, and any operations to retry
+     * are back at the head of the queue, send the next one.
+     */
+    private void sent() {
+        synchronized (this) {
+            sending = false;
+        }
+
+        flush();
+    }
+
+    private void failed(
+            final List<Pending> batch,
+            final int rc,
+            final List<OpResult> results) {
+        List<Pending> retry = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            Pending p = batch.get(i);
+            int err = results == null || results.size() <= i
+                    ? rc
+                    : results.get(i) instanceof OpResult.ErrorResult e
+                        ? e.getErr()
+                        : rc;
+
+            if (results != null
+                    && (err == KeeperException.Code.OK.intValue()
+                        || err == KeeperException.Code
+                                .RUNTIMEINCONSISTENCY.intValue())) {
+                // rolled back because of another operation
+                retry.add(p);
+            } else {
+                p.result().completeExceptionally(KeeperException.create(
+                        KeeperException.Code.get(err),
+                        p.op().getPath()));
+            }
+        }
+
+        if (retry.size() == batch.size()) {
+            // no operation to blame, do not loop forever
+            retry.forEach(p -> p.result().completeExceptionally(
+                    KeeperException.create(
+                            KeeperException.Code.get(rc),
+                            p.op().getPath())));
+
+            return;
+        }
+
+        if (!retry.isEmpty()) {
+            resent.add(retry.size());
+
+            synchronized (this) {
+                for (int i = retry.size() - 1; i >= 0; i--) {
+                    Pending p = retry.get(i);
+                    queue.addFirst(p);
+                    queuedBytes += p.bytes();
+                }
+            }
+        }
+    }
+
+    private static int weight(final String path, final byte[] data) {
+        return OP_OVERHEAD
+                + 2 * (path == null ? 0 : path.length())
+                + (data == null ? 0 : data.length);
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
+
+/**
+ * Reads whole subtrees of znodes, keeping many requests in flight
+ * on the client session instead of waiting for each reply in turn.
+ *
+ * A traversal first asks the quorum for the number of znodes under
+ * its root, then walks the tree breadth first, with at most
+ * the configured number of outstanding requests. Each znode is handed
+ * to the visitor as soon as its data arrives.
+ *
+ * The result is not a consistent snapshot of the tree: znodes may
+ * change while it is being read. Znodes deleted during the traversal
+ * are skipped.
+ */
+public class TreeReader {
+
+    /**
+     * The default maximum number of outstanding requests.
+     */
+    public static final int DEFAULT_MAX_OUTSTANDING = 256;
+
+    /**
+     * A znode read by a traversal.
+     *
+     * @param path the znode path
+     * @param data the znode data
+     * @param stat the znode stat
+     */
+    public record Node(String path, byte[] data, Stat stat) {
+    }
+
+    /**
+     * Receives the znodes of a traversal.
+     *
+     * Visitors are called on the client event thread, one znode at
+     * a time, and should not block.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * Called once before any znode, with the number of znodes
+         * the quorum reported under the root.
+         *
+         * @param descendants the number of znodes under the root
+         */
+        default void expect(final int descendants) {
+        }
+
+        /**
+         * Called for the root and every znode under it.
+         *
+         * @param node the znode
+         */
+        void visit(Node node);
+    }
+
+    private final ZooKeeper zk;
+    private final int maxOutstanding;
+
+    /**
+     * Create a reader with the default number of outstanding requests.
+     *
+     * @param client the client to read through
+     */
+    public TreeReader(final ZooKeeper client) {
+        this(client, DEFAULT_MAX_OUTSTANDING);
+    }
+
+    /**
+     * Create a reader.
+     *
+     * @param client the client to read through
+     * @param maxOutstandingRequests the maximum number of requests
+     * in flight for a traversal
+     */
+    public TreeReader(
+            final ZooKeeper client,
+            final int maxOutstandingRequests) {
+        if (maxOutstandingRequests < 2) {
+            throw new IllegalArgumentException(
+                    "A traversal needs at least two outstanding requests");
+        }
+
+        zk = client;
+        maxOutstanding = maxOutstandingRequests;
+    }
+
+    /**
+     * Read a znode and all znodes under it.
+     *
+     * @param root the path of the subtree root
+     * @param visitor receives the znodes
+     * @return the number of znodes visited
+     */
+    public CompletableFuture<Long> read(
+            final String root,
+            final Visitor visitor) {
+        CompletableFuture<Long> res = new CompletableFuture<>();
+
+        try {
+            zk.getAllChildrenNumber(root, (rc, path, ctx, number) -> {
+                if (rc != KeeperException.Code.OK.intValue()) {
+                    res.completeExceptionally(KeeperException.create(
+                            KeeperException.Code.get(rc), path));
+                    return;
+                }
+
+                try {
+                    visitor.expect(number);
+                } catch (RuntimeException e) {
+                    res.completeExceptionally(e);
+                    return;
+                }
+
+                new Traversal(visitor, res, number).start(root);
+            }, null);
+        } catch (RuntimeException e) {
+            res.completeExceptionally(e);
+        }
+
+        return res;
+    }
+
+    /*
+     * The state of a single traversal, only touched with its lock held
+     * as requests are sent from the calling thread and replies arrive
+     * on the event thread.
+     */
+    private final class Traversal {
+
+        private final Visitor visitor;
+        private final CompletableFuture<Long> result;
+        private final ArrayDeque<String> pending;
+
+        private int outstanding;
+        private long visited;
+
+        Traversal(
+                final Visitor nodesVisitor,
+                final CompletableFuture<Long> res,
+                final int expected) {
+            visitor = nodesVisitor;
+            result = res;
+            /* directories are pending, at most about half of the tree */
+            pending = new ArrayDeque<>(Math.max(16, expected / 2));
+        }
+
+        void start(final String root) {
+            synchronized (this) {
+                pending.add(root);
+            }
+
+            pump();
+        }
+
+        private void pump() {
+            while (true) {
+                String path;
+
+                synchronized (this) {
+                    if (result.isDone()) {
+                        return;
+                    }
+
+                    if (pending.isEmpty() || outstanding + 2 > maxOutstanding) {
+                        if (pending.isEmpty() && outstanding == 0) {
+                            result.complete(visited);
+                        }
+
+                        return;
+                    }
+
+                    path = pending.poll();
+                    outstanding += 2;
+                }
+
+                try {
+                    zk.getData(path, false, this::onData, null);
+                    zk.getChildren(path, false, this::onChildren, null);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+            }
+        }
+
+        private void onData(
+                final int rc,
+                final String path,
+                final Object ctx,
+                final byte[] data,
+                final Stat stat) {
+            if (rc == KeeperException.Code.OK.intValue()) {
+                try {
+                    visitor.visit(new Node(path, data, stat));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+
+                synchronized (this) {
+                    visited++;
+                }
+            }
+
+            done(rc, path);
+        }
+
+        private void onChildren(
+                final int rc,
+                final String path,
+                final Object ctx,
+                final List<String> children) {
+            if (rc == KeeperException.Code.OK.intValue()) {
+                String prefix = "/".equals(path) ? path : path + "/";
+
+                synchronized (this) {
+                    for (String child : children) {
+                        pending.add(prefix + child);
+                    }
+                }
+            }
+
+            done(rc, path);
+        }
+
+        private void done(final int rc, final String path) {
+            if (rc != KeeperException.Code.OK.intValue()
+                    && rc != KeeperException.Code.NONODE.intValue()) {
+                result.completeExceptionally(KeeperException.create(
+                        KeeperException.Code.get(rc), path));
+            }
+
+            synchronized (this) {
+                outstanding--;
+            }
+
+            pump();
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.zookeeper.AddWatchMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
+
+/**
+ * An in-memory cache of znode data and children, kept in sync
+ * with a quorum through a persistent recursive watch.
+ *
+ * Reads of paths under the cache root are served from memory once
+ * they have been read from the quorum. Any change reported by the
+ * watch evicts the affected entries, and the whole cache is dropped
+ * whenever the client loses its connection, as changes may have been
+ * missed in the meantime. Until the watch is in place reads go
+ * straight to the quorum.
+ *
+ * The cache holds at most the configured number of bytes, evicting
+ * the least recently used entries first.
+ */
+public class ZNodeCache implements Watcher, AutoCloseable {
+
+    /**
+     * The default size of the cache, 16MiB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    /*
+     * Estimated memory taken by an entry, on top of its path and data.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    /*
+     * Invalidations are counted per stripe of paths, a value read
+     * from the quorum is only cached if no invalidation hit its stripe
+     * while it was being read.
+     */
+    private static final int STRIPES = 64;
+
+    private static final Logger LOG =
+            Logger.getLogger(ZNodeCache.class.getName());
+
+    private final ZooKeeper zk;
+    private final String root;
+    private final long maxBytes;
+    private final ZNodeCacheStats stats = new ZNodeCacheStats();
+    private final AtomicLongArray epochs = new AtomicLongArray(STRIPES);
+
+    /* guarded by itself */
+    private final LinkedHashMap<Key, Entry> entries =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private volatile boolean watching;
+    private volatile boolean connected;
+    private volatile boolean closed;
+
+    private record Key(String path, boolean children) {
+    }
+
+    private record Entry(
+            byte[] data,
+            Stat stat,
+            List<String> children,
+            int weight) {
+    }
+
+    /**
+     * Create a new cache, call {@link #start()} to begin caching.
+     *
+     * @param client the client to read through
+     * @param rootPath the root of the cached subtree
+     * @param maxSize the maximum size of the cache, in bytes
+     */
+    public ZNodeCache(
+            final ZooKeeper client,
+            final String rootPath,
+            final long maxSize) {
+        zk = client;
+        root = rootPath;
+        maxBytes = maxSize;
+    }
+
+    /**
+     * Add the persistent recursive watch on the cache root,
+     * caching starts once the quorum confirms it.
+     */
+    public void start() {
+        zk.addWatch(
+                root,
+                this,
+                AddWatchMode.PERSISTENT_RECURSIVE,
+                (rc, path, ctx) -> {
+                    if (rc == KeeperException.Code.OK.intValue()) {
+                        clear();
+                        connected = true;
+                        watching = !closed;
+                    } else {
+                        LOG.warning("Failed to watch "
+                                + root
+                                + ", reads will not be cached: "
+                                + KeeperException.Code.get(rc));
+                    }
+                },
+                null);
+    }
+
+    /**
+     * Stop caching and remove the watch.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        watching = false;
+        clear();
+
+        try {
+            zk.removeWatches(
+                    root,
+                    this,
+                    WatcherType.Any,
+                    true,
+                    (rc, path, ctx) -> { },
+                    null);
+        } catch (RuntimeException e) {
+            LOG.log(Level.FINE, "Failed to remove watch on " + root, e);
+        }
+    }
+
+    /**
+     * Check if reads are currently served from the cache.
+     *
+     * @return true if caching is in effect
+     */
+    public boolean isActive() {
+        return watching && connected;
+    }
+
+    /**
+     * Get the data and the stat of a znode, as
+     * {@link ZooKeeper#getData(String, boolean, Stat)} would.
+     *
+     * @param path the znode path
+     * @param stat filled with the stat of the znode, if not null
+     * @return the znode data
+     * @throws KeeperException if the quorum returns an error
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public byte[] getData(final String path, final Stat stat)
+            throws KeeperException, InterruptedException {
+        if (!isActive() || !covers(path)) {
+            return zk.getData(path, false, stat);
+        }
+
+        Key key = new Key(path, false);
+        Entry e = lookup(key);
+        if (e != null) {
+            stats.recordHit();
+            copyStat(e.stat(), stat);
+
+            return e.data() == null ? null : e.data().clone();
+        }
+
+        stats.recordMiss();
+
+        long epoch = epochs.get(stripe(path));
+        Stat s = new Stat();
+        byte[] data = zk.getData(path, false, s);
+
+        store(key,
+                new Entry(
+                        data == null ? null : data.clone(),
+                        s,
+                        null,
+                        ENTRY_OVERHEAD
+                            + 2 * path.length()
+                            + (data == null ? 0 : data.length)),
+                epoch);
+        copyStat(s, stat);
+
+        return data;
+    }
+
+    /**
+     * Get the children of a znode, as
+     * {@link ZooKeeper#getChildren(String, boolean)} would.
+     *
+     * @param path the znode path
+     * @return the names of the children
+     * @throws KeeperException if the quorum returns an error
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<String> getChildren(final String path)
+            throws KeeperException, InterruptedException {
+        if (!isActive() || !covers(path)) {
+            return zk.getChildren(path, false);
+        }
+
+        Key key = new Key(path, true);
+        Entry e = lookup(key);
+        if (e != null) {
+            stats.recordHit();
+
+            return new ArrayList<>(e.children());
+        }
+
+        stats.recordMiss();
+
+        long epoch = epochs.get(stripe(path));
+        List<String> children = zk.getChildren(path, false);
+        int weight = ENTRY_OVERHEAD + 2 * path.length();
+        for (String c : children) {
+            weight += 2 * c.length() + 40;
+        }
+
+        store(key, new Entry(null, null, List.copyOf(children), weight), epoch);
+
+        return children;
+    }
+
+    /**
+     * Drop all cached entries.
+     */
+    public void clear() {
+        for (int i = 0; i < STRIPES; i++) {
+            epochs.incrementAndGet(i);
+        }
+
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+
+        stats.recordClear();
+    }
+
+    /**
+     * Get the current size of the cache.
+     *
+     * @return the estimated size of all entries, in bytes
+     */
+    public long getBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    /**
+     * Get the maximum size of the cache.
+     *
+     * @return the size, in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Get the number of cached entries.
+     *
+     * @return the count of cached data and children entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get the cache hit and miss counters.
+     *
+     * @return the stats of this cache
+     */
+    public ZNodeCacheStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void process(final WatchedEvent event) {
+        String path = event.getPath();
+
+        switch (event.getType()) {
+        case None:
+            processState(event.getState());
+            break;
+        case NodeDataChanged:
+            invalidate(new Key(path, false));
+            break;
+        case NodeCreated:
+            invalidateParent(path);
+            break;
+        case NodeDeleted:
+            invalidate(new Key(path, false));
+            invalidate(new Key(path, true));
+            invalidateParent(path);
+            break;
+        case PersistentWatchRemoved:
+            watching = false;
+            clear();
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void processState(final Event.KeeperState state) {
+        switch (state) {
+        case SyncConnected:
+        case ConnectedReadOnly:
+            // changes may have been missed while disconnected
+            clear();
+            connected = true;
+            break;
+        case SaslAuthenticated:
+            break;
+        default:
+            connected = false;
+            clear();
+            break;
+        }
+    }
+
+    private Entry lookup(final Key key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void store(final Key key, final Entry e, final long epoch) {
+        if (e.weight() > maxBytes) {
+            return;
+        }
+
+        synchronized (entries) {
+            if (!isActive() || epochs.get(stripe(key.path())) != epoch) {
+                // changed while we were reading it
+                return;
+            }
+
+            Entry old = entries.put(key, e);
+            bytes += e.weight() - (old == null ? 0 : old.weight());
+
+            Iterator<Map.Entry<Key, Entry>> it =
+                    entries.entrySet().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                Map.Entry<Key, Entry> eldest = it.next();
+                bytes -= eldest.getValue().weight();
+                it.remove();
+                stats.recordEviction();
+            }
+        }
+    }
+
+    /*
+     * The children and the stat of the parent change when
+     * a child is created or deleted.
+     */
+    private void invalidateParent(final String path) {
+        String parent = parent(path);
+
+        invalidate(new Key(parent, true));
+        invalidate(new Key(parent, false));
+    }
+
+    private void invalidate(final Key key) {
+        if (key.path() == null) {
+            return;
+        }
+
+        epochs.incrementAndGet(stripe(key.path()));
+
+        synchronized (entries) {
+            Entry old = entries.remove(key);
+            if (old != null) {
+                bytes -= old.weight();
+                stats.recordInvalidation();
+            }
+        }
+    }
+
+    private boolean covers(final String path) {
+        return "/".equals(root)
+                || path.equals(root)
+                || path.startsWith(root + "/");
+    }
+
+    private static int stripe(final String path) {
+        return (path.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+
+    private static String parent(final String path) {
+        if (path == null) {
+            return null;
+        }
+
+        int i = path.lastIndexOf('/');
+
+        return i <= 0 ? "/" : path.substring(0, i);
+    }
+
+    private static void copyStat(final Stat from, final Stat to) {
+        if (to == null) {
+            return;
+        }
+
+        to.setCzxid(from.getCzxid());
+        to.setMzxid(from.getMzxid());
+        to.setCtime(from.getCtime());
+        to.setMtime(from.getMtime());
+        to.setVersion(from.getVersion());
+        to.setCversion(from.getCversion());
+        to.setAversion(from.getAversion());
+        to.setEphemeralOwner(from.getEphemeralOwner());
+        to.setDataLength(from.getDataLength());
+        to.setNumChildren(from.getNumChildren());
+        to.setPzxid(from.getPzxid());
+    }
+}
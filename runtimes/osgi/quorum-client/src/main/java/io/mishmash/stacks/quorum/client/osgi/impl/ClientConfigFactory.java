@@ -17,7 +17,10 @@
 
 package io.mishmash.stacks.quorum.client.osgi.impl;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import org.apache.zookeeper.client.ZKClientConfig;
@@ -40,9 +43,38 @@ public class ClientConfigFactory extends ZKClientConfig {
     public static final String PROP_QUORUM_ID = "quorum.id";
     public static final String PROP_QUORUM_CONNECT = "quorum.connectString";
     public static final String PROP_QUORUM_TIMEOUT = "quorum.sessionTimeout";
+    public static final String PROP_WATCHERS_DISPATCH =
+            "quorum.watchers.dispatch";
+    public static final String PROP_WATCHERS_SLOW_MILLIS =
+            "quorum.watchers.slowMillis";
+    public static final String PROP_HOST_PROVIDER = "quorum.hostProvider";
+    public static final String PROP_SERVER_ZONES = "quorum.servers.zones";
+
+    public static final String PROP_CACHE_ENABLED = "quorum.cache.enabled";
+    public static final String PROP_CACHE_ROOT = "quorum.cache.root";
+    public static final String PROP_CACHE_MAX_BYTES = "quorum.cache.maxBytes";
+
+    public static final String PROP_BATCH_ENABLED = "quorum.batch.enabled";
+    public static final String PROP_BATCH_MAX_OPS = "quorum.batch.maxOps";
+    public static final String PROP_BATCH_MAX_DELAY_MILLIS =
+            "quorum.batch.maxDelayMillis";
+    public static final String PROP_BATCH_MAX_BYTES = "quorum.batch.maxBytes";
+
+    public static final String PROP_ASYNC_ENABLED = "quorum.async.enabled";
+    public static final String PROP_ASYNC_EXECUTOR = "quorum.async.executor";
+
+    public static final String HOST_PROVIDER_STATIC = "static";
+    public static final String HOST_PROVIDER_SCORING = "scoring";
+    public static final String HOST_PROVIDER_LOCALITY = "locality";
+
+    public static final String ASYNC_EXECUTOR_VIRTUAL = "virtual";
+    public static final String ASYNC_EXECUTOR_EVENT = "event";
 
     private static final Logger LOG = Logger.getLogger(ClientConfigFactory.class.getName());
 
+    /* keys set from the component configuration */
+    private final Set<String> applied = ConcurrentHashMap.newKeySet();
+
     @Activate
     private void start(final BundleContext ctx, final Map<String, Object> props) {
         LOG.info("Publishing new client configuration for quorum '"
@@ -65,12 +97,22 @@ public class ClientConfigFactory extends ZKClientConfig {
             + getProperty(PROP_QUORUM_ID, "<unspecified>")
             + "'");
 
-        init();
+        /*
+         * Update in place rather than init() and start over, running
+         * clients keep reading this config and should never see it empty.
+         */
+        Set<String> dropped = new HashSet<>(applied);
+        dropped.removeAll(props.keySet());
         setAll(props);
-        if (props != null) {
-            for (String prop : props.keySet()) {
-                LOG.info("Got new zk config prop: " + prop);
-            }
+
+        for (String prop : dropped) {
+            setProperty(prop, null);
+            applied.remove(prop);
+            LOG.info("Dropped zk config prop: " + prop);
+        }
+
+        for (String prop : props.keySet()) {
+            LOG.info("Got new zk config prop: " + prop);
         }
     }
 
@@ -81,6 +123,7 @@ public class ClientConfigFactory extends ZKClientConfig {
 
             if (v != null) {
                 setProperty(k, v.toString());
+                applied.add(k);
             }
         }
     }
@@ -17,10 +17,12 @@
 
 package io.mishmash.stacks.quorum.client.osgi.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.zookeeper.Watcher;
 import org.apache.zookeeper.client.HostProvider;
@@ -34,12 +36,9 @@ import org.osgi.service.component.annotations.ReferencePolicy;
 @Component(immediate=true)
 public class ClientConfigsTracker {
 
-    private static Collection<Map.Entry<ZKClientConfig, Map<String, Object>>>
-            configs = new ConcurrentLinkedQueue<>();
-    private static Collection<Map.Entry<Watcher, Map<String, Object>>>
-            watchers = new ConcurrentLinkedQueue<>();
-    private static Collection<Map.Entry<HostProvider, Map<String, Object>>>
-            hostProviders = new ConcurrentLinkedQueue<>();
+    private static final Index<ZKClientConfig> configs = new Index<>();
+    private static final Index<Watcher> watchers = new Index<>();
+    private static final Index<HostProvider> hostProviders = new Index<>();
 
     @Reference(
             service=ZKClientConfig.class,
@@ -48,28 +47,19 @@ public class ClientConfigsTracker {
     protected void addClientConfig(
             final ZKClientConfig config,
             final Map<String, Object> props) {
-        configs.add(Map.entry(config, props));
+        configs.put(config, props);
     }
 
     protected void updatedClientConfig(
             final ZKClientConfig config,
             final Map<String, Object> props) {
-        Map.Entry<ZKClientConfig, Map<String, Object>> ent =
-                find(configs, config);
-        if (ent != null) {
-            configs.remove(ent);
-            configs.add(Map.entry(config, props));
-        }
+        configs.replace(config, props);
     }
 
     protected void removeClientConfig(
             final ZKClientConfig config,
             final Map<String, Object> props) {
-        Map.Entry<ZKClientConfig, Map<String, Object>> ent =
-                find(configs, config);
-        if (ent != null) {
-            configs.remove(ent);
-        }
+        configs.remove(config);
     }
 
     @Reference(
@@ -79,26 +69,19 @@ public class ClientConfigsTracker {
     protected void addWatcher(
             final Watcher watcher,
             final Map<String, Object> props) {
-        watchers.add(Map.entry(watcher, props));
+        watchers.put(watcher, props);
     }
 
     protected void updatedWatcher(
             final Watcher watcher,
             final Map<String, Object> props) {
-        Map.Entry<Watcher, Map<String, Object>> ent = find(watchers, watcher);
-        if (ent != null) {
-            watchers.remove(ent);
-            watchers.add(Map.entry(watcher, props));
-        }
+        watchers.replace(watcher, props);
     }
 
     protected void removeWatcher(
             final Watcher watcher,
             final Map<String, Object> props) {
-        Map.Entry<Watcher, Map<String, Object>> ent = find(watchers, watcher);
-        if (ent != null) {
-            watchers.remove(ent);
-        }
+        watchers.remove(watcher);
     }
 
     @Reference(
@@ -108,134 +91,154 @@ public class ClientConfigsTracker {
     protected void addHostProvider(
             final HostProvider hostProvider,
             final Map<String, Object> props) {
-        hostProviders.add(Map.entry(hostProvider, props));
+        hostProviders.put(hostProvider, props);
     }
 
     protected void updatedHostProvider(
             final HostProvider hostProvider,
             final Map<String, Object> props) {
-        Map.Entry<HostProvider, Map<String, Object>> ent =
-                find(hostProviders, hostProvider);
-        if (ent != null) {
-            hostProviders.remove(ent);
-            hostProviders.add(Map.entry(hostProvider, props));
-        }
+        hostProviders.replace(hostProvider, props);
     }
 
     protected void removeHostProvider(
             final HostProvider hostProvider,
             final Map<String, Object> props) {
-        Map.Entry<HostProvider, Map<String, Object>> ent =
-                find(hostProviders, hostProvider);
-        if (ent != null) {
-            hostProviders.remove(ent);
-        }
-    }
-
-    protected static <T> Map.Entry<T, Map<String, Object>> find(
-            final Collection<Map.Entry<T, Map<String, Object>>> col,
-            final T watcher) {
-        return col.stream()
-            .filter(e -> e.getKey().equals(watcher))
-            .findAny()
-            .orElse(null);
-    }
-    
-    protected static <T> Map.Entry<T, Map<String, Object>>
-            findForQuorum(
-                    final Collection<Map.Entry<T, Map<String, Object>>> col,
-                    final String optionName,
-                    final String optionValue) {
-        return col.stream()
-                .filter(e -> optionValue.equals(
-                        e.getValue().getOrDefault(
-                                optionName,
-                                null)))
-                .findAny()
-                .orElse(null);
-    }
-
-    protected static <T> Map.Entry<T, Map<String, Object>>
-            findForQuorumId(
-                    final Collection<Map.Entry<T, Map<String, Object>>> col,
-                    final String quorumId) {
-        Objects.requireNonNull(quorumId,
-                "Supplied quorum id must be non-null");
-
-        return findForQuorum(col,
-                ClientConfigFactory.PROP_QUORUM_ID,
-                quorumId);
-    }
-
-    protected static <T> Map.Entry<T, Map<String, Object>>
-            findForQuorumConnect(
-                    final Collection<Map.Entry<T, Map<String, Object>>> col,
-                    final String quorumConnectStr) {
-        Objects.requireNonNull(quorumConnectStr,
-                "Supplied quorum connect string must be non-null");
-
-        return findForQuorum(col,
-                ClientConfigFactory.PROP_QUORUM_CONNECT,
-                quorumConnectStr);
+        hostProviders.remove(hostProvider);
     }
 
     public static ZKClientConfig configForQuorumId(final String quorumId) {
-        Map.Entry<ZKClientConfig, Map<String, Object>> ent =
-                findForQuorumId(configs, quorumId);
-
-        return ent == null ? null : ent.getKey();
+        return configs.firstForQuorumId(quorumId);
     }
 
     public static ZKClientConfig configForQuorumConnectStr(
             final String quorumConnectStr) {
-        Map.Entry<ZKClientConfig, Map<String, Object>> ent =
-                findForQuorumConnect(configs, quorumConnectStr);
-
-        return ent == null ? null : ent.getKey();
+        return configs.firstForQuorumConnect(quorumConnectStr);
     }
 
     public static Watcher watcherForQuorumId(final String quorumId) {
-        Map.Entry<Watcher, Map<String, Object>> ent =
-                findForQuorumId(watchers, quorumId);
-
-        return ent == null ? null : ent.getKey();
+        return watchers.firstForQuorumId(quorumId);
     }
 
     public static Watcher watcherForQuorumConnectStr(
             final String quorumConnectStr) {
-        Map.Entry<Watcher, Map<String, Object>> ent =
-                findForQuorumConnect(watchers, quorumConnectStr);
-
-        return ent == null ? null : ent.getKey();
+        return watchers.firstForQuorumConnect(quorumConnectStr);
     }
 
     public static Collection<Watcher> watchersForQuorumConnectStr(
             final String quorumConnectStr) {
-        Objects.requireNonNull(quorumConnectStr,
-                "Supplied quorum connect string must be non-null");
-
-        return watchers.stream()
-            .filter(ent -> quorumConnectStr
-                    .equals(
-                            ent.getValue().getOrDefault(
-                                ClientConfigFactory.PROP_QUORUM_CONNECT,
-                                null)))
-            .map(ent -> ent.getKey())
-            .toList();
+        return watchers.allForQuorumConnect(quorumConnectStr);
     }
 
     public static HostProvider hostProviderForQuorumId(final String quorumId) {
-        Map.Entry<HostProvider, Map<String, Object>> ent =
-                findForQuorumId(hostProviders, quorumId);
-
-        return ent == null ? null : ent.getKey();
+        return hostProviders.firstForQuorumId(quorumId);
     }
 
     public static HostProvider hostProviderForQuorumConnectStr(
             final String quorumConnectStr) {
-        Map.Entry<HostProvider, Map<String, Object>> ent =
-                findForQuorumConnect(hostProviders, quorumConnectStr);
+        return hostProviders.firstForQuorumConnect(quorumConnectStr);
+    }
+
+    /*
+     * Services of one type, as tracked by DS, together with their
+     * lookup indexes.
+     *
+     * Lookups happen on hot paths - every HostProvider.next() and every
+     * watched event go through here - while services come and go rarely.
+     * So the whole state is kept in an immutable snapshot that readers
+     * take with a single volatile read and writers rebuild, under a lock,
+     * on every change.
+     */
+    private static final class Index<T> {
+
+        private volatile Snapshot<T> snapshot = Snapshot.empty();
+
+        synchronized void put(final T service, final Map<String, Object> props) {
+            List<Map.Entry<T, Map<String, Object>>> entries =
+                    new ArrayList<>(snapshot.entries());
+            entries.add(Map.entry(service, props));
+            snapshot = Snapshot.of(entries);
+        }
+
+        synchronized void replace(
+                final T service,
+                final Map<String, Object> props) {
+            List<Map.Entry<T, Map<String, Object>>> entries =
+                    new ArrayList<>(snapshot.entries());
+            if (entries.removeIf(e -> e.getKey().equals(service))) {
+                entries.add(Map.entry(service, props));
+                snapshot = Snapshot.of(entries);
+            }
+        }
+
+        synchronized void remove(final T service) {
+            List<Map.Entry<T, Map<String, Object>>> entries =
+                    new ArrayList<>(snapshot.entries());
+            if (entries.removeIf(e -> e.getKey().equals(service))) {
+                snapshot = Snapshot.of(entries);
+            }
+        }
+
+        T firstForQuorumId(final String quorumId) {
+            Objects.requireNonNull(quorumId,
+                    "Supplied quorum id must be non-null");
+
+            return first(snapshot.byQuorumId().get(quorumId));
+        }
+
+        T firstForQuorumConnect(final String quorumConnectStr) {
+            return first(allForQuorumConnect(quorumConnectStr));
+        }
+
+        List<T> allForQuorumConnect(final String quorumConnectStr) {
+            Objects.requireNonNull(quorumConnectStr,
+                    "Supplied quorum connect string must be non-null");
+
+            return snapshot.byQuorumConnect()
+                    .getOrDefault(quorumConnectStr, List.of());
+        }
 
-        return ent == null ? null : ent.getKey();
+        private static <T> T first(final List<T> services) {
+            return services == null || services.isEmpty()
+                    ? null
+                    : services.get(0);
+        }
+    }
+
+    private record Snapshot<T>(
+            List<Map.Entry<T, Map<String, Object>>> entries,
+            Map<String, List<T>> byQuorumId,
+            Map<String, List<T>> byQuorumConnect) {
+
+        static <T> Snapshot<T> empty() {
+            return new Snapshot<>(List.of(), Map.of(), Map.of());
+        }
+
+        static <T> Snapshot<T> of(
+                final List<Map.Entry<T, Map<String, Object>>> entries) {
+            return new Snapshot<>(
+                    List.copyOf(entries),
+                    index(entries, ClientConfigFactory.PROP_QUORUM_ID),
+                    index(entries, ClientConfigFactory.PROP_QUORUM_CONNECT));
+        }
+
+        private static <T> Map<String, List<T>> index(
+                final List<Map.Entry<T, Map<String, Object>>> entries,
+                final String optionName) {
+            Map<String, List<T>> res = new HashMap<>();
+            for (Map.Entry<T, Map<String, Object>> e : entries) {
+                Object key = e.getValue() == null
+                        ? null
+                        : e.getValue().get(optionName);
+                if (key != null) {
+                    res.computeIfAbsent(key.toString(), k -> new ArrayList<>())
+                        .add(e.getKey());
+                }
+            }
+
+            Map<String, List<T>> copy = new HashMap<>();
+            res.forEach((k, v) -> copy.put(k, List.copyOf(v)));
+
+            return Map.copyOf(copy);
+        }
     }
 }
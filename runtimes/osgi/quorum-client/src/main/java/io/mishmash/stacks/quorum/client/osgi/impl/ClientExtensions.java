@@ -0,0 +1,260 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.zookeeper.ZooKeeper;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+
+import io.mishmash.stacks.quorum.client.AsyncZooKeeper;
+import io.mishmash.stacks.quorum.client.BatchingWriter;
+import io.mishmash.stacks.quorum.client.ZNodeCache;
+
+/*
+ * Optional services registered next to a quorum client, on top of
+ * its session, as enabled in the client configuration.
+ */
+final class ClientExtensions {
+
+    /*
+     * Configuration keys that affect the extensions, a change in any
+     * of them restarts all extensions.
+     */
+    private static final List<String> PREFIXES = List.of(
+            "quorum.cache.",
+            "quorum.batch.",
+            "quorum.async.");
+
+    private static final Logger LOG =
+            Logger.getLogger(ClientExtensions.class.getName());
+
+    private final Map<String, Object> config;
+    private final List<ServiceRegistration<?>> registrations =
+            new ArrayList<>();
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    /*
+     * The extensions configuration, parsed and validated before
+     * anything is started, so that a bad value doesn't leave a
+     * session or services behind.
+     */
+    record Settings(
+            Map<String, Object> config,
+            boolean cacheEnabled,
+            String cacheRoot,
+            long cacheMaxBytes,
+            boolean batchEnabled,
+            int batchMaxOps,
+            Duration batchMaxDelay,
+            int batchMaxBytes,
+            boolean asyncEnabled,
+            boolean asyncOnEventThread) {
+    }
+
+    private ClientExtensions(final Map<String, Object> extensionsConfig) {
+        config = extensionsConfig;
+    }
+
+    /*
+     * Throws an IllegalArgumentException if an enabled extension
+     * is misconfigured.
+     */
+    static Settings parse(final Map<String, Object> props) {
+        boolean cache =
+                isEnabled(props, ClientConfigFactory.PROP_CACHE_ENABLED);
+        boolean batch =
+                isEnabled(props, ClientConfigFactory.PROP_BATCH_ENABLED);
+        boolean async =
+                isEnabled(props, ClientConfigFactory.PROP_ASYNC_ENABLED);
+
+        return new Settings(
+                extensionsConfig(props),
+                cache,
+                String.valueOf(props.getOrDefault(
+                        ClientConfigFactory.PROP_CACHE_ROOT,
+                        "/")),
+                cache
+                    ? longValue(props,
+                            ClientConfigFactory.PROP_CACHE_MAX_BYTES,
+                            ZNodeCache.DEFAULT_MAX_BYTES)
+                    : ZNodeCache.DEFAULT_MAX_BYTES,
+                batch,
+                batch
+                    ? intValue(props,
+                            ClientConfigFactory.PROP_BATCH_MAX_OPS,
+                            BatchingWriter.DEFAULT_MAX_OPS)
+                    : BatchingWriter.DEFAULT_MAX_OPS,
+                batch
+                    ? Duration.ofMillis(intValue(props,
+                            ClientConfigFactory.PROP_BATCH_MAX_DELAY_MILLIS,
+                            (int) BatchingWriter.DEFAULT_MAX_DELAY
+                                .toMillis()))
+                    : BatchingWriter.DEFAULT_MAX_DELAY,
+                batch
+                    ? intValue(props,
+                            ClientConfigFactory.PROP_BATCH_MAX_BYTES,
+                            BatchingWriter.DEFAULT_MAX_BYTES)
+                    : BatchingWriter.DEFAULT_MAX_BYTES,
+                async,
+                ClientConfigFactory.ASYNC_EXECUTOR_EVENT.equals(
+                        String.valueOf(props.getOrDefault(
+                                ClientConfigFactory.PROP_ASYNC_EXECUTOR,
+                                ClientConfigFactory.ASYNC_EXECUTOR_VIRTUAL))));
+    }
+
+    /*
+     * Either starts all enabled extensions or, if one of them fails,
+     * stops those already started and rethrows.
+     */
+    static ClientExtensions start(
+            final BundleContext ctx,
+            final ZooKeeper zk,
+            final Settings settings,
+            final Dictionary<String, ?> serviceProps) {
+        ClientExtensions res = new ClientExtensions(settings.config());
+
+        try {
+            if (settings.cacheEnabled()) {
+                ZNodeCache cache = res.own(new ZNodeCache(
+                        zk,
+                        settings.cacheRoot(),
+                        settings.cacheMaxBytes()));
+                cache.start();
+                res.register(ctx, ZNodeCache.class, cache, serviceProps);
+            }
+
+            if (settings.batchEnabled()) {
+                BatchingWriter writer = res.own(new BatchingWriter(
+                        zk,
+                        settings.batchMaxOps(),
+                        settings.batchMaxDelay(),
+                        settings.batchMaxBytes()));
+                res.register(ctx, BatchingWriter.class, writer, serviceProps);
+            }
+
+            if (settings.asyncEnabled()) {
+                AsyncZooKeeper async = res.own(settings.asyncOnEventThread()
+                        ? new AsyncZooKeeper(zk, Runnable::run)
+                        : new AsyncZooKeeper(zk));
+                res.register(ctx, AsyncZooKeeper.class, async, serviceProps);
+            }
+        } catch (RuntimeException e) {
+            res.stop();
+
+            throw e;
+        }
+
+        return res;
+    }
+
+    boolean isConfiguredBy(final Map<String, Object> props) {
+        return config.equals(extensionsConfig(props));
+    }
+
+    void setProperties(final Dictionary<String, ?> serviceProps) {
+        registrations.forEach(r -> r.setProperties(serviceProps));
+    }
+
+    void stop() {
+        registrations.forEach(ServiceRegistration::unregister);
+        registrations.clear();
+
+        for (AutoCloseable r : resources) {
+            try {
+                r.close();
+            } catch (Exception e) {
+                LOG.log(Level.WARNING,
+                        "Failed to stop quorum client extension", e);
+            }
+        }
+
+        resources.clear();
+    }
+
+    private <T extends AutoCloseable> T own(final T resource) {
+        resources.add(resource);
+
+        return resource;
+    }
+
+    private <T> void register(
+            final BundleContext ctx,
+            final Class<T> type,
+            final T service,
+            final Dictionary<String, ?> serviceProps) {
+        registrations.add(ctx.registerService(type, service, serviceProps));
+    }
+
+    private static boolean isEnabled(
+            final Map<String, Object> props,
+            final String key) {
+        return Boolean.parseBoolean(
+                String.valueOf(props.getOrDefault(key, "false")));
+    }
+
+    private static int intValue(
+            final Map<String, Object> props,
+            final String key,
+            final int defaultValue) {
+        try {
+            return Integer.parseInt(
+                    String.valueOf(props.getOrDefault(key, defaultValue)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Quorum client property " + key + " must be integer",
+                    e);
+        }
+    }
+
+    private static long longValue(
+            final Map<String, Object> props,
+            final String key,
+            final long defaultValue) {
+        try {
+            return Long.parseLong(
+                    String.valueOf(props.getOrDefault(key, defaultValue)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Quorum client property " + key + " must be integer",
+                    e);
+        }
+    }
+
+    private static Map<String, Object> extensionsConfig(
+            final Map<String, Object> props) {
+        Map<String, Object> res = new HashMap<>();
+
+        props.forEach((k, v) -> {
+            if (PREFIXES.stream().anyMatch(k::startsWith)) {
+                res.put(k, v);
+            }
+        });
+
+        return res;
+    }
+}
@@ -22,6 +22,7 @@ import java.io.UncheckedIOException;
 import java.util.Dictionary;
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.logging.Logger;
 
 import org.apache.zookeeper.ZooKeeper;
 import org.osgi.framework.BundleContext;
@@ -40,7 +41,12 @@ import org.osgi.service.component.annotations.Modified;
 )
 public class ClientFactory {
 
+    private static final Logger LOG =
+            Logger.getLogger(ClientFactory.class.getName());
+
     private ServiceRegistration<ZooKeeper> serviceReg;
+    private ClientSessionPool.Lease session;
+    private ClientExtensions extensions;
 
     @Activate
     protected void activate(
@@ -48,26 +54,27 @@ public class ClientFactory {
             final Map<String, Object> props) {
         String connectStr = (String) props
                 .get(ClientConfigFactory.PROP_QUORUM_CONNECT);
-        int sessionTimeout = 2000;
-        if (props.containsKey(ClientConfigFactory.PROP_QUORUM_TIMEOUT)) {
-            try {
-                sessionTimeout = Integer.valueOf((String) props
-                        .get(ClientConfigFactory.PROP_QUORUM_TIMEOUT));
-            } catch (NumberFormatException e) {
-                throw new RuntimeException("""
-                                Session timeout configuration property \
-                                for quorum client """
-                                + connectStr
-                                + " must be integer");
-            }
-        }
+        int sessionTimeout = sessionTimeout(connectStr, props);
+        // fail on a bad config before a session is opened
+        ClientExtensions.Settings ext = ClientExtensions.parse(props);
 
         try {
-            ZooKeeper zk = new ZooKeeper(connectStr, sessionTimeout, null);
+            session = ClientSessionPool.acquire(connectStr, sessionTimeout);
             Dictionary<String, ?> p = new Hashtable<>(props);
-            serviceReg = ctx.registerService(ZooKeeper.class, zk, p);
+            serviceReg = ctx.registerService(
+                    ZooKeeper.class,
+                    session.get(),
+                    p);
+            extensions = ClientExtensions.start(ctx, session.get(), ext, p);
         } catch (IOException e) {
+            // DS won't deactivate a component that failed to activate
+            deactivate(ctx, props);
+
             throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deactivate(ctx, props);
+
+            throw e;
         }
     }
 
@@ -75,23 +82,131 @@ public class ClientFactory {
     protected void modified(
             final BundleContext ctx,
             final Map<String, Object> props) {
+        String connectStr = (String) props
+                .get(ClientConfigFactory.PROP_QUORUM_CONNECT);
+        int sessionTimeout = sessionTimeout(connectStr, props);
+        ClientExtensions.Settings ext = ClientExtensions.parse(props);
+        Dictionary<String, ?> p = new Hashtable<>(props);
+
+        try {
+            if (sessionTimeout != session.getSessionTimeout()) {
+                /*
+                 * The timeout is negotiated when a session is created
+                 * and cannot be changed on a live session.
+                 */
+                LOG.info("Session timeout changed, opening a new session"
+                        + " for quorum client " + connectStr);
+                replaceSession(ctx, connectStr, sessionTimeout, ext, props);
+
+                return;
+            }
+
+            if (!connectStr.equals(session.getConnectString())
+                    && !ClientSessionPool.reconfigure(session, connectStr)) {
+                LOG.info("Cannot move the current session, opening a new"
+                        + " session for quorum client " + connectStr);
+                replaceSession(ctx, connectStr, sessionTimeout, ext, props);
+
+                return;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        serviceReg.setProperties(p);
+
+        if (extensions != null && extensions.isConfiguredBy(props)) {
+            extensions.setProperties(p);
+        } else {
+            if (extensions != null) {
+                extensions.stop();
+                // in case the new ones fail to start
+                extensions = null;
+            }
 
+            extensions = ClientExtensions.start(ctx, session.get(), ext, p);
+        }
     }
 
     @Deactivate
     protected void deactivate(
             final BundleContext ctx,
             final Map<String, Object> props) {
+        if (extensions != null) {
+            extensions.stop();
+            extensions = null;
+        }
+
         if (serviceReg != null) {
-            ZooKeeper zk = serviceReg.getReference().adapt(ZooKeeper.class);
             serviceReg.unregister();
             serviceReg = null;
+        }
+
+        if (session != null) {
+            // closes the session if no other client shares it
+            session.close();
+            session = null;
+        }
+    }
+
+    /*
+     * Registers the new session before withdrawing the old one, so that
+     * the quorum client service never disappears.
+     */
+    private void replaceSession(
+            final BundleContext ctx,
+            final String connectStr,
+            final int sessionTimeout,
+            final ClientExtensions.Settings ext,
+            final Map<String, Object> props) throws IOException {
+        Dictionary<String, ?> p = new Hashtable<>(props);
+        ClientSessionPool.Lease next =
+                ClientSessionPool.acquire(connectStr, sessionTimeout);
+        ServiceRegistration<ZooKeeper> nextReg = null;
+        ClientExtensions nextExtensions;
+
+        try {
+            nextReg = ctx.registerService(ZooKeeper.class, next.get(), p);
+            nextExtensions = ClientExtensions.start(ctx, next.get(), ext, p);
+        } catch (RuntimeException e) {
+            // keep the current session, drop the new one
+            if (nextReg != null) {
+                nextReg.unregister();
+            }
 
+            next.close();
+
+            throw e;
+        }
+
+        if (extensions != null) {
+            extensions.stop();
+        }
+        serviceReg.unregister();
+        session.close();
+
+        serviceReg = nextReg;
+        session = next;
+        extensions = nextExtensions;
+    }
+
+    private static int sessionTimeout(
+            final String connectStr,
+            final Map<String, Object> props) {
+        int sessionTimeout = 2000;
+        if (props.containsKey(ClientConfigFactory.PROP_QUORUM_TIMEOUT)) {
             try {
-                zk.close();
-            } catch (InterruptedException e) {
-                // ignore
+                sessionTimeout = Integer.valueOf((String) props
+                        .get(ClientConfigFactory.PROP_QUORUM_TIMEOUT));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("""
+                                Session timeout configuration property \
+                                for quorum client """
+                                + connectStr
+                                + " must be integer");
             }
         }
+
+        return sessionTimeout;
     }
 }
@@ -0,0 +1,201 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.client.ConnectStringParser;
+import org.apache.zookeeper.client.ZKClientConfig;
+
+/*
+ * Reference-counted ZooKeeper sessions, shared by all quorum client
+ * configurations that would otherwise open identical sessions.
+ *
+ * Sessions are keyed by the full connect string (chroot included), the
+ * session timeout and the client config published for that connect
+ * string. The session is closed when its last lease is released.
+ */
+final class ClientSessionPool {
+
+    private static final Logger LOG =
+            Logger.getLogger(ClientSessionPool.class.getName());
+
+    /* guarded by itself */
+    private static final Map<Key, Session> SESSIONS = new HashMap<>();
+
+    private ClientSessionPool() {
+    }
+
+    private record Key(
+            String connectString,
+            int sessionTimeout,
+            ZKClientConfig config) {
+    }
+
+    private static final class Session {
+
+        private volatile Key key;
+        private final ZooKeeper zk;
+        private int leases;
+
+        Session(final Key k, final ZooKeeper z) {
+            key = k;
+            zk = z;
+        }
+    }
+
+    /*
+     * A handle on a pooled session, to be closed once the session is no
+     * longer used by its holder.
+     */
+    static final class Lease implements AutoCloseable {
+
+        private final Session session;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(final Session s) {
+            session = s;
+        }
+
+        ZooKeeper get() {
+            return session.zk;
+        }
+
+        String getConnectString() {
+            return session.key.connectString();
+        }
+
+        int getSessionTimeout() {
+            return session.key.sessionTimeout();
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(session);
+            }
+        }
+    }
+
+    static Lease acquire(
+            final String connectStr,
+            final int sessionTimeout) throws IOException {
+        Key key = new Key(
+                connectStr,
+                sessionTimeout,
+                ClientConfigsTracker.configForQuorumConnectStr(connectStr));
+
+        synchronized (SESSIONS) {
+            Session s = SESSIONS.get(key);
+            if (s == null) {
+                s = new Session(key,
+                        new ZooKeeper(connectStr, sessionTimeout, null));
+                SESSIONS.put(key, s);
+            } else {
+                LOG.fine("Sharing existing session for quorum client "
+                        + connectStr);
+            }
+
+            s.leases++;
+
+            return new Lease(s);
+        }
+    }
+
+    /*
+     * Points a session at a new list of servers without closing it.
+     *
+     * This is only possible when the lease holder is the only user of
+     * the session, the chroot and the client config stay the same and no
+     * other session is already pooled for the new connect string. Returns false when
+     * the caller has to lease another session instead.
+     */
+    static boolean reconfigure(
+            final Lease lease,
+            final String connectStr) throws IOException {
+        Session s = lease.session;
+
+        synchronized (SESSIONS) {
+            Key current = s.key;
+            Key key = new Key(
+                    connectStr,
+                    current.sessionTimeout(),
+                    ClientConfigsTracker
+                        .configForQuorumConnectStr(connectStr));
+
+            if (lease.released.get()
+                    || s.leases != 1
+                    || key.config() != current.config()
+                    || SESSIONS.containsKey(key)
+                    || !Objects.equals(
+                            chroot(current.connectString()),
+                            chroot(connectStr))) {
+                return false;
+            }
+
+            s.zk.updateServerList(connectStr);
+
+            SESSIONS.remove(current, s);
+            s.key = key;
+            SESSIONS.put(key, s);
+        }
+
+        LOG.info("Quorum client session moved to " + connectStr);
+
+        return true;
+    }
+
+    private static String chroot(final String connectStr) {
+        return new ConnectStringParser(connectStr).getChrootPath();
+    }
+
+    static int size() {
+        synchronized (SESSIONS) {
+            return SESSIONS.size();
+        }
+    }
+
+    private static void release(final Session s) {
+        synchronized (SESSIONS) {
+            if (--s.leases > 0) {
+                return;
+            }
+
+            SESSIONS.remove(s.key, s);
+        }
+
+        try {
+            s.zk.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING,
+                    "Failed to close session for quorum client "
+                        + s.key.connectString(),
+                    e);
+        }
+    }
+}
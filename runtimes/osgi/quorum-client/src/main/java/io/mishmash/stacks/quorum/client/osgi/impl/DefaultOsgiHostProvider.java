@@ -23,17 +23,17 @@ import java.util.Collection;
 import org.apache.zookeeper.client.ConnectStringParser;
 import org.apache.zookeeper.client.HostProvider;
 import org.apache.zookeeper.client.StaticHostProvider;
+import org.apache.zookeeper.client.ZKClientConfig;
 
 public class DefaultOsgiHostProvider implements HostProvider {
 
-    private StaticHostProvider defaultProvider;
-    private String connectString;
+    private HostProvider defaultProvider;
+    private volatile String connectString;
 
     public DefaultOsgiHostProvider(final String connectStr) {
-        defaultProvider = new StaticHostProvider(
-                new ConnectStringParser(connectStr)
-                    .getServerAddresses());
         connectString = connectStr;
+        defaultProvider = createDefault(
+                new ConnectStringParser(connectStr).getServerAddresses());
     }
 
     @Override
@@ -65,6 +65,33 @@ public class DefaultOsgiHostProvider implements HostProvider {
         return current.updateServerList(serverAddresses, currentHost);
     }
 
+    public void setConnectString(final String connectStr) {
+        connectString = connectStr;
+    }
+
+    protected HostProvider createDefault(
+            final Collection<InetSocketAddress> servers) {
+        ZKClientConfig config = getConfig();
+        String type = config == null
+                ? null
+                : config.getProperty(ClientConfigFactory.PROP_HOST_PROVIDER);
+
+        if (ClientConfigFactory.HOST_PROVIDER_LOCALITY.equals(type)) {
+            return new LocalityHostProvider(
+                    servers,
+                    connectString,
+                    this::getConfig);
+        } else if (ClientConfigFactory.HOST_PROVIDER_SCORING.equals(type)) {
+            return new ScoringHostProvider(servers, connectString);
+        }
+
+        return new StaticHostProvider(servers);
+    }
+
+    protected ZKClientConfig getConfig() {
+        return ClientConfigsTracker.configForQuorumConnectStr(connectString);
+    }
+
     protected HostProvider getOrDefault() {
         HostProvider p = ClientConfigsTracker
                 .hostProviderForQuorumConnectStr(connectString);
@@ -17,48 +17,134 @@
 
 package io.mishmash.stacks.quorum.client.osgi.impl;
 
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.client.ZKClientConfig;
 
+/*
+ * Passes client events to the default watcher and to all OSGi-registered
+ * watchers of the same quorum.
+ *
+ * The default watcher is always called on the ZooKeeper event thread.
+ * OSGi watchers are called there too, one after the other, unless the
+ * quorum client config sets the dispatch mode to 'parallel'. In that
+ * mode each watcher gets its own queue, drained by a shared pool, so
+ * that a slow watcher only delays its own events.
+ */
 public class DefaultOsgiWatcher implements Watcher {
 
-    private static final Logger LOG =
-            Logger.getLogger(DefaultOsgiWatcher.class.getName());
+    /*
+     * All live clients' watchers, for JMX.
+     */
+    private static final Set<DefaultOsgiWatcher> INSTANCES =
+            Collections.synchronizedSet(
+                    Collections.newSetFromMap(new WeakHashMap<>()));
 
-    private Watcher defaultWatcher;
-    private String connectString;
+    private WatcherMailbox defaultWatcher;
+    private volatile String connectString;
+    private final Map<Watcher, WatcherMailbox> mailboxes =
+            new ConcurrentHashMap<>();
 
     public DefaultOsgiWatcher(
             final String connectStr,
             final Watcher defWatcher) {
-        defaultWatcher = defWatcher;
+        defaultWatcher = defWatcher == null
+                ? null
+                : new WatcherMailbox(defWatcher);
         connectString = connectStr;
+
+        INSTANCES.add(this);
     }
 
     @Override
     public void process(final WatchedEvent event) {
+        ZKClientConfig config = ClientConfigsTracker
+                .configForQuorumConnectStr(connectString);
+        long slowNanos = WatcherDispatch.slowThresholdNanos(config);
+
         if (defaultWatcher != null) {
             // pass to the wrapped watcher
-            process(defaultWatcher, event);
+            defaultWatcher.dispatch(event, slowNanos);
         }
 
         // pass to all other currently configured watchers
-        ClientConfigsTracker.watchersForQuorumConnectStr(connectString)
-            .forEach(w -> process(w, event));
+        Collection<Watcher> watchers = ClientConfigsTracker
+                .watchersForQuorumConnectStr(connectString);
+        boolean parallel = WatcherDispatch.isParallel(config);
+
+        for (Watcher w : watchers) {
+            WatcherMailbox mailbox =
+                    mailboxes.computeIfAbsent(w, WatcherMailbox::new);
+
+            if (parallel) {
+                mailbox.offer(event, slowNanos);
+            } else {
+                mailbox.dispatch(event, slowNanos);
+            }
+        }
+
+        if (mailboxes.size() > watchers.size()) {
+            // forget watchers that are gone, once they are done
+            mailboxes.values().removeIf(m -> m.isIdle()
+                    && !watchers.contains(m.getWatcher()));
+        }
+    }
+
+    public String getConnectString() {
+        return connectString;
+    }
+
+    public void setConnectString(final String connectStr) {
+        connectString = connectStr;
+    }
+
+    public List<WatcherInfo> getWatcherInfos() {
+        List<WatcherInfo> res = new ArrayList<>();
+
+        if (defaultWatcher != null) {
+            res.add(new WatcherInfo(connectString, defaultWatcher, true));
+        }
+
+        mailboxes.values().forEach(m ->
+                res.add(new WatcherInfo(connectString, m, false)));
+
+        return res;
+    }
+
+    public void resetWatcherStats() {
+        if (defaultWatcher != null) {
+            defaultWatcher.getStats().reset();
+        }
+
+        mailboxes.values().forEach(m -> m.getStats().reset());
+    }
+
+    public static List<WatcherInfo> snapshot() {
+        List<WatcherInfo> res = new ArrayList<>();
+
+        for (DefaultOsgiWatcher w : instances()) {
+            res.addAll(w.getWatcherInfos());
+        }
+
+        return res;
+    }
+
+    public static void resetStats() {
+        instances().forEach(DefaultOsgiWatcher::resetWatcherStats);
     }
 
-    private void process(final Watcher watcher, final WatchedEvent event) {
-        try {
-            watcher.process(event);
-        } catch (Exception e) {
-            LOG.log(Level.WARNING, 
-                    "Watcher "
-                    + watcher.getClass().getName()
-                    + " failed to process event, ignoring error",
-                    e);
+    private static List<DefaultOsgiWatcher> instances() {
+        synchronized (INSTANCES) {
+            return new ArrayList<>(INSTANCES);
         }
     }
 }
@@ -0,0 +1,158 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.apache.zookeeper.client.ZKClientConfig;
+
+import io.mishmash.stacks.quorum.client.osgi.impl.PlacementTracker.Locality;
+
+/*
+ * A HostProvider that prefers quorum servers close to this host.
+ *
+ * The zone (and optionally the fault domain) of each server is taken
+ * from the quorum client config, as a comma-separated list of
+ * 'host[:port]=zone[/faultDomain]' entries, and compared to the
+ * Placement published by the local compute provider. Servers sharing
+ * this host's zone and fault domain are tried first, then the rest of
+ * the zone, then everything else. Within each tier servers are ordered
+ * by their scores, see ScoringHostProvider.
+ *
+ * The order is recomputed at the start of every pass over the servers,
+ * so placement and config changes are picked up on the next reconnect.
+ * Ordering runs on the client's send thread, so it only takes the
+ * locality PlacementTracker has already resolved, and the zones config
+ * is parsed only when it changes.
+ */
+public class LocalityHostProvider extends ScoringHostProvider {
+
+    private static final int TIER_SAME_DOMAIN = 0;
+    private static final int TIER_SAME_ZONE = 1;
+    private static final int TIER_OTHER = 2;
+
+    /* the parsed zones config and the spec it was parsed from */
+    private record Zones(String spec, Map<String, String[]> servers) {
+
+        private static final Zones NONE = new Zones(null, Map.of());
+    }
+
+    private final Supplier<ZKClientConfig> config;
+    private volatile Locality locality = Locality.UNKNOWN;
+    private volatile Zones zones = Zones.NONE;
+
+    public LocalityHostProvider(
+            final Collection<InetSocketAddress> serverAddresses,
+            final String providerName,
+            final Supplier<ZKClientConfig> clientConfig) {
+        super(serverAddresses, providerName);
+
+        config = clientConfig;
+    }
+
+    @Override
+    protected void prepareOrder() {
+        /*
+         * Never blocks - until the placement is resolved all servers
+         * are in the same tier and only their scores count.
+         */
+        locality = PlacementTracker.getLocality();
+
+        ZKClientConfig conf = config.get();
+        String spec = conf == null
+                ? null
+                : conf.getProperty(ClientConfigFactory.PROP_SERVER_ZONES);
+
+        if (!Objects.equals(spec, zones.spec())) {
+            zones = new Zones(spec, parse(spec));
+        }
+    }
+
+    @Override
+    protected Comparator<InetSocketAddress> preference() {
+        Map<String, String[]> servers = zones.servers();
+        Locality local = locality;
+
+        return Comparator.comparingInt(s -> tier(s, servers, local));
+    }
+
+    @Override
+    protected boolean shouldMove(
+            final InetSocketAddress best,
+            final InetSocketAddress current) {
+        // move if there is a closer server now
+        return preference().compare(best, current) < 0;
+    }
+
+    private static int tier(
+            final InetSocketAddress server,
+            final Map<String, String[]> servers,
+            final Locality local) {
+        if (local.zone() == null) {
+            return TIER_OTHER;
+        }
+
+        String[] zone = servers.get(server.getHostString() + ":"
+                + server.getPort());
+        if (zone == null) {
+            zone = servers.get(server.getHostString());
+        }
+
+        if (zone == null || !local.zone().equals(zone[0])) {
+            return TIER_OTHER;
+        }
+
+        return zone[1] != null && zone[1].equals(local.domain())
+                ? TIER_SAME_DOMAIN
+                : TIER_SAME_ZONE;
+    }
+
+    private static Map<String, String[]> parse(final String spec) {
+        Map<String, String[]> res = new HashMap<>();
+
+        if (spec == null) {
+            return res;
+        }
+
+        for (String ent : spec.split(",")) {
+            int eq = ent.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+
+            String server = ent.substring(0, eq).trim();
+            String zone = ent.substring(eq + 1).trim();
+            int slash = zone.indexOf('/');
+
+            res.put(server, slash < 0
+                    ? new String[] {zone, null}
+                    : new String[] {
+                            zone.substring(0, slash),
+                            zone.substring(slash + 1)});
+        }
+
+        return Map.copyOf(res);
+    }
+}
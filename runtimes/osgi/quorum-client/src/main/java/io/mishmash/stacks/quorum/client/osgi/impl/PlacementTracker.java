@@ -0,0 +1,123 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+
+import io.mishmash.stacks.common.ActionExecutors;
+import io.mishmash.stacks.compute.common.Placement;
+import io.mishmash.stacks.compute.common.PlacementDomain;
+import io.mishmash.stacks.compute.common.PlacementZone;
+
+/*
+ * Keeps track of the placement of this host, as published by
+ * a compute provider, if any.
+ *
+ * A provider may have to make a request (to the cloud's metadata
+ * service, for example) to find the zone and fault domain. That is
+ * done once, in the background, when the placement is bound, and
+ * the result kept for readers that must not block - like the
+ * ZooKeeper client's send thread choosing the next server.
+ */
+@Component(immediate=true)
+public class PlacementTracker {
+
+    private static final Logger LOG =
+            Logger.getLogger(PlacementTracker.class.getName());
+
+    /* where this host is, UNKNOWN until it is resolved */
+    public record Locality(String zone, String domain) {
+
+        public static final Locality UNKNOWN = new Locality(null, null);
+    }
+
+    private static volatile Placement placement;
+    private static volatile Locality locality = Locality.UNKNOWN;
+
+    @Reference(
+            service=Placement.class,
+            cardinality=ReferenceCardinality.OPTIONAL,
+            policy=ReferencePolicy.DYNAMIC,
+            policyOption=ReferencePolicyOption.GREEDY)
+    protected void setPlacement(final Placement p) {
+        synchronized (PlacementTracker.class) {
+            placement = p;
+            locality = Locality.UNKNOWN;
+        }
+
+        CompletableFuture.supplyAsync(
+                    () -> resolve(p),
+                    ActionExecutors.getShared())
+                .whenComplete((l, e) -> {
+                    if (e != null) {
+                        LOG.log(Level.WARNING,
+                                "Failed to resolve the placement of this host",
+                                e);
+
+                        return;
+                    }
+
+                    synchronized (PlacementTracker.class) {
+                        // unless it was replaced in the meantime
+                        if (placement == p) {
+                            locality = l;
+                        }
+                    }
+                });
+    }
+
+    protected void unsetPlacement(final Placement p) {
+        synchronized (PlacementTracker.class) {
+            if (placement == p) {
+                placement = null;
+                locality = Locality.UNKNOWN;
+            }
+        }
+    }
+
+    public static Placement getPlacement() {
+        return placement;
+    }
+
+    /*
+     * Never blocks, returns UNKNOWN while the placement is
+     * not available or still being resolved.
+     */
+    public static Locality getLocality() {
+        return locality;
+    }
+
+    private static Locality resolve(final Placement p) {
+        return new Locality(
+                p.getZone()
+                    .map(PlacementZone::getId)
+                    .orElse(null),
+                p.getFaultDomain()
+                    .map(PlacementDomain::getId)
+                    .orElse(null));
+    }
+}
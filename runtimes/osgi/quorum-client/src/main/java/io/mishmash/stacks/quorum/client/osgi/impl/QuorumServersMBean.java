@@ -0,0 +1,56 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+
+import io.mishmash.stacks.common.PlatformMBeans;
+
+@Component(service={QuorumServersMXBean.class}, immediate=true)
+public class QuorumServersMBean implements QuorumServersMXBean {
+
+    private ObjectName objectName;
+
+    @Activate
+    protected void activate() {
+        objectName = PlatformMBeans.register(this, OBJECT_NAME);
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        PlatformMBeans.unregister(objectName);
+        objectName = null;
+    }
+
+    @Override
+    public List<ServerScoreInfo> getServers() {
+        return ScoringHostProvider.snapshot();
+    }
+
+    @Override
+    public void resetScores() {
+        ScoringHostProvider.resetAll();
+    }
+}
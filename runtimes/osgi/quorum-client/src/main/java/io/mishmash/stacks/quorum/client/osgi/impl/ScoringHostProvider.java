@@ -0,0 +1,341 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.zookeeper.client.HostProvider;
+
+/*
+ * A HostProvider that prefers the quorum servers it had the best
+ * experience with.
+ *
+ * Every server gets a score made of moving averages of its connect
+ * latency and of its failure rate. A connect attempt that is followed
+ * by another next() instead of onConnected() counts as a failure, and
+ * so does a session lost shortly after it was established. Servers
+ * failing repeatedly are quarantined for a while and only tried when
+ * no other server is left.
+ *
+ * The servers are ordered at the start of every pass over them, after
+ * a successful connection the next pass starts from the best server.
+ */
+public class ScoringHostProvider implements HostProvider {
+
+    /*
+     * Sessions lost sooner than this count as failures.
+     */
+    static final long FLAP_WINDOW_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private static final Logger LOG =
+            Logger.getLogger(ScoringHostProvider.class.getName());
+
+    /*
+     * All live providers, for JMX.
+     */
+    private static final Set<ScoringHostProvider> INSTANCES =
+            Collections.synchronizedSet(
+                    Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final String name;
+    private final Map<InetSocketAddress, ServerScore> scores =
+            new ConcurrentHashMap<>();
+
+    /* guarded by this */
+    private List<InetSocketAddress> servers;
+    private List<InetSocketAddress> pass;
+    private int position;
+    private boolean connectedInPass;
+    private InetSocketAddress attempted;
+    private long attemptStarted;
+    private boolean connected;
+    private long connectedAt;
+
+    public ScoringHostProvider(
+            final Collection<InetSocketAddress> serverAddresses,
+            final String providerName) {
+        if (serverAddresses.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "A HostProvider may not be empty!");
+        }
+
+        servers = List.copyOf(serverAddresses);
+        name = providerName;
+
+        INSTANCES.add(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public synchronized int size() {
+        return servers.size();
+    }
+
+    @Override
+    public InetSocketAddress next(final long spinDelay) {
+        InetSocketAddress addr;
+        boolean needToSleep = false;
+        boolean newPass;
+
+        synchronized (this) {
+            newPass = pass == null || position >= pass.size();
+        }
+
+        if (newPass) {
+            prepareOrder();
+        }
+
+        synchronized (this) {
+            long now = System.nanoTime();
+
+            if (attempted != null
+                    && (!connected || now - connectedAt < FLAP_WINDOW_NANOS)) {
+                // could not connect, or lost the session too soon
+                score(attempted).recordFailure(now);
+            } else if (attempted != null) {
+                score(attempted).recordStable();
+            }
+
+            if (pass == null || position >= pass.size()) {
+                // went through all servers without connecting
+                needToSleep = pass != null && !connectedInPass;
+                pass = order(servers, now);
+                position = 0;
+                connectedInPass = false;
+            }
+
+            addr = pass.get(position++);
+            attempted = addr;
+            attemptStarted = System.nanoTime();
+            connected = false;
+        }
+
+        if (needToSleep && spinDelay > 0) {
+            try {
+                Thread.sleep(spinDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        return resolve(addr);
+    }
+
+    @Override
+    public synchronized void onConnected() {
+        long now = System.nanoTime();
+
+        if (attempted != null) {
+            score(attempted).recordConnect(now - attemptStarted);
+        }
+
+        connected = true;
+        connectedAt = now;
+
+        // start from the best server again on the next disconnect
+        connectedInPass = true;
+        pass = null;
+    }
+
+    @Override
+    public boolean updateServerList(
+            final Collection<InetSocketAddress> serverAddresses,
+            final InetSocketAddress currentHost) {
+        prepareOrder();
+
+        synchronized (this) {
+            return update(serverAddresses, currentHost);
+        }
+    }
+
+    private boolean update(
+            final Collection<InetSocketAddress> serverAddresses,
+            final InetSocketAddress currentHost) {
+        servers = List.copyOf(serverAddresses);
+        scores.keySet().retainAll(servers);
+        pass = null;
+
+        if (currentHost == null) {
+            return true;
+        }
+
+        List<InetSocketAddress> ordered = order(servers, System.nanoTime());
+        InetSocketAddress current = ordered.stream()
+                .filter(s -> matches(s, currentHost))
+                .findFirst()
+                .orElse(null);
+
+        // reconnect if our server was removed or a better one is there
+        return current == null || shouldMove(ordered.get(0), current);
+    }
+
+    /*
+     * Whether to leave the current server for the best one, when the
+     * server list changes.
+     */
+    protected boolean shouldMove(
+            final InetSocketAddress best,
+            final InetSocketAddress current) {
+        return false;
+    }
+
+    /*
+     * Called without holding the lock before servers are ordered, to
+     * look up anything preference() needs that may block.
+     */
+    protected void prepareOrder() {
+    }
+
+    /*
+     * Preferences that come before the scores, all servers are
+     * equal by default. Runs under the lock, must not block.
+     */
+    protected Comparator<InetSocketAddress> preference() {
+        return (a, b) -> 0;
+    }
+
+    protected List<InetSocketAddress> order(
+            final List<InetSocketAddress> addrs,
+            final long now) {
+        List<InetSocketAddress> healthy = new ArrayList<>(addrs.size());
+        List<InetSocketAddress> quarantined = new ArrayList<>();
+
+        for (InetSocketAddress s : addrs) {
+            if (score(s).isQuarantined(now)) {
+                quarantined.add(s);
+            } else {
+                healthy.add(s);
+            }
+        }
+
+        Collections.shuffle(healthy);
+        healthy.sort(preference()
+                .thenComparingDouble(s -> score(s).cost()));
+
+        // only when nothing else is left, the first to come out first
+        quarantined.sort(Comparator.comparingLong(
+                s -> score(s).getQuarantinedUntil() - now));
+        healthy.addAll(quarantined);
+
+        return healthy;
+    }
+
+    protected ServerScore score(final InetSocketAddress server) {
+        return scores.computeIfAbsent(server, s -> new ServerScore());
+    }
+
+    public List<ServerScoreInfo> getScores() {
+        long now = System.nanoTime();
+        List<ServerScoreInfo> res = new ArrayList<>();
+
+        scores.forEach((s, score) ->
+                res.add(new ServerScoreInfo(name, s, score, now)));
+
+        return res;
+    }
+
+    public void resetScores() {
+        scores.values().forEach(ServerScore::reset);
+    }
+
+    public static List<ServerScoreInfo> snapshot() {
+        List<ServerScoreInfo> res = new ArrayList<>();
+
+        for (ScoringHostProvider p : instances()) {
+            res.addAll(p.getScores());
+        }
+
+        return res;
+    }
+
+    public static void resetAll() {
+        instances().forEach(ScoringHostProvider::resetScores);
+    }
+
+    private static List<ScoringHostProvider> instances() {
+        synchronized (INSTANCES) {
+            return new ArrayList<>(INSTANCES);
+        }
+    }
+
+    protected static boolean matches(
+            final InetSocketAddress server,
+            final InetSocketAddress host) {
+        if (server.getPort() != host.getPort()) {
+            return false;
+        }
+
+        if (server.getHostString().equals(host.getHostString())) {
+            return true;
+        }
+
+        if (host.getAddress() == null) {
+            return false;
+        }
+
+        try {
+            for (InetAddress a
+                    : InetAddress.getAllByName(server.getHostString())) {
+                if (a.equals(host.getAddress())) {
+                    return true;
+                }
+            }
+        } catch (UnknownHostException e) {
+            // cannot be the one
+        }
+
+        return false;
+    }
+
+    private static InetSocketAddress resolve(final InetSocketAddress addr) {
+        if (!addr.isUnresolved()) {
+            return addr;
+        }
+
+        try {
+            InetAddress[] all = InetAddress.getAllByName(addr.getHostString());
+            InetAddress a = all[(int) (Math.random() * all.length)];
+
+            return new InetSocketAddress(a, addr.getPort());
+        } catch (UnknownHostException e) {
+            LOG.log(Level.WARNING,
+                    "Unable to resolve address: " + addr,
+                    e);
+
+            return addr;
+        }
+    }
+}
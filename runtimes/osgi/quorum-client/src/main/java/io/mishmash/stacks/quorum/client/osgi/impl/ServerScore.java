@@ -0,0 +1,132 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.time.Duration;
+
+/*
+ * Connection history of a single quorum server, as seen by one client.
+ *
+ * Connect latency and failure rate are exponentially weighted moving
+ * averages. A server failing several times in a row is quarantined
+ * for an exponentially growing period.
+ */
+class ServerScore {
+
+    /* weight of the latest sample */
+    static final double ALPHA = 0.3;
+
+    static final int QUARANTINE_AFTER_FAILURES = 3;
+    static final long MIN_QUARANTINE_NANOS = Duration.ofSeconds(1).toNanos();
+    static final long MAX_QUARANTINE_NANOS = Duration.ofMinutes(1).toNanos();
+
+    /* guarded by this */
+    private double latencyNanos = Double.NaN;
+    private double failureRate;
+    private long connects;
+    private long failures;
+    private int consecutiveFailures;
+    private int quarantines;
+    private boolean quarantined;
+    private long quarantinedUntil;
+
+    synchronized void recordConnect(final long nanos) {
+        latencyNanos = Double.isNaN(latencyNanos)
+                ? nanos
+                : latencyNanos + ALPHA * (nanos - latencyNanos);
+        failureRate -= ALPHA * failureRate;
+        connects++;
+        consecutiveFailures = 0;
+    }
+
+    /*
+     * Called once a connection outlived the flapping window.
+     */
+    synchronized void recordStable() {
+        quarantines = 0;
+    }
+
+    synchronized void recordFailure(final long now) {
+        failureRate += ALPHA * (1 - failureRate);
+        failures++;
+
+        if (++consecutiveFailures >= QUARANTINE_AFTER_FAILURES) {
+            int shift = Math.min(quarantines++, 16);
+            long period = Math.min(
+                    MAX_QUARANTINE_NANOS,
+                    MIN_QUARANTINE_NANOS << shift);
+
+            quarantined = true;
+            quarantinedUntil = now + period;
+            consecutiveFailures = 0;
+        }
+    }
+
+    synchronized boolean isQuarantined(final long now) {
+        return quarantined && quarantinedUntil - now > 0;
+    }
+
+    synchronized long getQuarantinedUntil() {
+        return quarantinedUntil;
+    }
+
+    /*
+     * Expected cost of connecting to this server, lower is better.
+     *
+     * Servers never connected to cost nothing, so that each gets
+     * tried and measured at least once.
+     */
+    synchronized double cost() {
+        if (Double.isNaN(latencyNanos)) {
+            return 0;
+        }
+
+        return latencyNanos / Math.max(0.05, 1 - failureRate);
+    }
+
+    synchronized double getLatencyMillis() {
+        return Double.isNaN(latencyNanos) ? -1 : latencyNanos / 1_000_000;
+    }
+
+    synchronized double getFailureRate() {
+        return failureRate;
+    }
+
+    synchronized long getConnects() {
+        return connects;
+    }
+
+    synchronized long getFailures() {
+        return failures;
+    }
+
+    synchronized int getQuarantines() {
+        return quarantines;
+    }
+
+    synchronized void reset() {
+        latencyNanos = Double.NaN;
+        failureRate = 0;
+        connects = 0;
+        failures = 0;
+        consecutiveFailures = 0;
+        quarantines = 0;
+        quarantined = false;
+    }
+}
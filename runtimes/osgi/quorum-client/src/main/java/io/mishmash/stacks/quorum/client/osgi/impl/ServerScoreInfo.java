@@ -0,0 +1,94 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A point-in-time view of the score of a quorum server,
+ * suitable for JMX (as an MXBean composite type).
+ */
+public class ServerScoreInfo {
+
+    private final String client;
+    private final String server;
+    private final double connectLatencyMillis;
+    private final double failureRate;
+    private final double cost;
+    private final long connects;
+    private final long failures;
+    private final int quarantines;
+    private final long quarantinedForMillis;
+
+    ServerScoreInfo(
+            final String clientName,
+            final InetSocketAddress addr,
+            final ServerScore score,
+            final long now) {
+        client = clientName;
+        server = addr.getHostString() + ":" + addr.getPort();
+        connectLatencyMillis = score.getLatencyMillis();
+        failureRate = score.getFailureRate();
+        cost = score.cost();
+        connects = score.getConnects();
+        failures = score.getFailures();
+        quarantines = score.getQuarantines();
+        quarantinedForMillis = score.isQuarantined(now)
+                ? TimeUnit.NANOSECONDS.toMillis(
+                        score.getQuarantinedUntil() - now)
+                : 0;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public double getConnectLatencyMillis() {
+        return connectLatencyMillis;
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public long getConnects() {
+        return connects;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public int getQuarantines() {
+        return quarantines;
+    }
+
+    public long getQuarantinedForMillis() {
+        return quarantinedForMillis;
+    }
+}
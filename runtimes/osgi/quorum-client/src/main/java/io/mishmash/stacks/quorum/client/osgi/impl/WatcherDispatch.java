@@ -0,0 +1,118 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.apache.zookeeper.client.ZKClientConfig;
+
+/*
+ * Settings and the shared thread pool used to deliver events
+ * to OSGi-registered watchers.
+ */
+final class WatcherDispatch {
+
+    static final String MODE_SERIAL = "serial";
+    static final String MODE_PARALLEL = "parallel";
+
+    /*
+     * Size of the pool shared by all quorum clients in parallel mode.
+     */
+    static final String PROP_THREADS =
+            "io.mishmash.stacks.quorum.watchers.threads";
+
+    static final long DEFAULT_SLOW_MILLIS = 1000;
+
+    private static final Logger LOG =
+            Logger.getLogger(WatcherDispatch.class.getName());
+
+    private WatcherDispatch() {
+    }
+
+    static boolean isParallel(final ZKClientConfig config) {
+        if (config == null) {
+            return false;
+        }
+
+        return MODE_PARALLEL.equalsIgnoreCase(config.getProperty(
+                ClientConfigFactory.PROP_WATCHERS_DISPATCH,
+                MODE_SERIAL));
+    }
+
+    static long slowThresholdNanos(final ZKClientConfig config) {
+        long millis = DEFAULT_SLOW_MILLIS;
+
+        if (config != null) {
+            String v = config.getProperty(
+                    ClientConfigFactory.PROP_WATCHERS_SLOW_MILLIS);
+            if (v != null) {
+                try {
+                    millis = Long.parseLong(v.trim());
+                } catch (NumberFormatException e) {
+                    LOG.warning("Ignoring invalid value '" + v + "' of "
+                            + ClientConfigFactory.PROP_WATCHERS_SLOW_MILLIS);
+                }
+            }
+        }
+
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    static ExecutorService getExecutor() {
+        return Holder.EXECUTOR;
+    }
+
+    /*
+     * Lazily started, only clients in parallel mode need it.
+     */
+    private static final class Holder {
+
+        static final ExecutorService EXECUTOR = create();
+
+        private static ExecutorService create() {
+            int threads = Integer.getInteger(
+                    PROP_THREADS,
+                    Math.max(2,
+                            Runtime.getRuntime().availableProcessors()));
+            AtomicInteger seq = new AtomicInteger();
+
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    threads,
+                    threads,
+                    60,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread t = new Thread(r,
+                                "quorum-watcher-" + seq.incrementAndGet());
+                        t.setDaemon(true);
+
+                        return t;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+
+            return pool;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A point-in-time view of the events delivered to a watcher
+ * of a quorum client, suitable for JMX (as an MXBean composite type).
+ */
+public class WatcherInfo {
+
+    private final String connectString;
+    private final String watcher;
+    private final boolean defaultWatcher;
+    private final long events;
+    private final long failures;
+    private final long slowEvents;
+    private final int queueDepth;
+    private final int maxQueueDepth;
+    private final double avgQueuedMillis;
+    private final double avgProcessMillis;
+    private final long maxProcessMillis;
+
+    WatcherInfo(
+            final String connectStr,
+            final WatcherMailbox mailbox,
+            final boolean isDefault) {
+        WatcherStats stats = mailbox.getStats();
+
+        connectString = connectStr;
+        watcher = mailbox.getWatcher().getClass().getName();
+        defaultWatcher = isDefault;
+        events = stats.getEvents();
+        failures = stats.getFailures();
+        slowEvents = stats.getSlowEvents();
+        queueDepth = stats.getQueueDepth();
+        maxQueueDepth = stats.getMaxQueueDepth();
+        avgQueuedMillis = average(stats.getQueuedNanos(), events);
+        avgProcessMillis = average(stats.getProcessNanos(), events);
+        maxProcessMillis = TimeUnit.NANOSECONDS
+                .toMillis(stats.getMaxProcessNanos());
+    }
+
+    private static double average(final long nanos, final long count) {
+        return count == 0 ? 0 : nanos / 1_000_000.0 / count;
+    }
+
+    public String getConnectString() {
+        return connectString;
+    }
+
+    public String getWatcher() {
+        return watcher;
+    }
+
+    public boolean isDefaultWatcher() {
+        return defaultWatcher;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getSlowEvents() {
+        return slowEvents;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public double getAvgQueuedMillis() {
+        return avgQueuedMillis;
+    }
+
+    public double getAvgProcessMillis() {
+        return avgProcessMillis;
+    }
+
+    public long getMaxProcessMillis() {
+        return maxProcessMillis;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+
+/*
+ * Delivers events to a single watcher, in the order they were offered.
+ *
+ * Queued events are drained by at most one pool thread at a time, so
+ * a watcher never sees two events concurrently, while different
+ * watchers are served in parallel.
+ */
+class WatcherMailbox implements Runnable {
+
+    /*
+     * Events delivered per pool task before yielding the thread
+     * to other watchers.
+     */
+    private static final int MAX_BATCH = 64;
+
+    private static final long SLOW_LOG_INTERVAL_NANOS =
+            TimeUnit.SECONDS.toNanos(10);
+
+    private static final Logger LOG =
+            Logger.getLogger(WatcherMailbox.class.getName());
+
+    private final Watcher watcher;
+    private final WatcherStats stats = new WatcherStats();
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong lastSlowLog = new AtomicLong();
+
+    private record Pending(
+            WatchedEvent event,
+            long enqueuedAt,
+            long slowNanos) {
+    }
+
+    WatcherMailbox(final Watcher w) {
+        watcher = w;
+        lastSlowLog.set(System.nanoTime() - SLOW_LOG_INTERVAL_NANOS);
+    }
+
+    Watcher getWatcher() {
+        return watcher;
+    }
+
+    WatcherStats getStats() {
+        return stats;
+    }
+
+    boolean isIdle() {
+        return !scheduled.get() && pending.isEmpty();
+    }
+
+    /*
+     * Delivers on the calling thread, unless earlier events are still
+     * queued, in which case the event goes after them.
+     */
+    void dispatch(final WatchedEvent event, final long slowNanos) {
+        if (isIdle()) {
+            deliver(event, System.nanoTime(), slowNanos);
+        } else {
+            offer(event, slowNanos);
+        }
+    }
+
+    void offer(final WatchedEvent event, final long slowNanos) {
+        pending.add(new Pending(event, System.nanoTime(), slowNanos));
+        stats.recordEnqueued();
+        schedule();
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (int i = 0; i < MAX_BATCH; i++) {
+                Pending p = pending.poll();
+                if (p == null) {
+                    break;
+                }
+
+                stats.recordDequeued();
+                deliver(p.event(), p.enqueuedAt(), p.slowNanos());
+            }
+        } finally {
+            scheduled.set(false);
+        }
+
+        if (!pending.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                WatcherDispatch.getExecutor().execute(this);
+            } catch (RejectedExecutionException e) {
+                // the pool is gone, do not lose the events
+                run();
+            }
+        }
+    }
+
+    private void deliver(
+            final WatchedEvent event,
+            final long enqueuedAt,
+            final long slowNanos) {
+        long start = System.nanoTime();
+        boolean failed = false;
+
+        try {
+            watcher.process(event);
+        } catch (Exception e) {
+            failed = true;
+            LOG.log(Level.WARNING,
+                    "Watcher "
+                    + watcher.getClass().getName()
+                    + " failed to process event, ignoring error",
+                    e);
+        }
+
+        long took = System.nanoTime() - start;
+        boolean slow = took >= slowNanos;
+        stats.recordDelivery(start - enqueuedAt, took, failed, slow);
+
+        if (slow) {
+            logSlow(event, took);
+        }
+    }
+
+    private void logSlow(final WatchedEvent event, final long took) {
+        long now = System.nanoTime();
+        long last = lastSlowLog.get();
+
+        if (now - last < SLOW_LOG_INTERVAL_NANOS
+                || !lastSlowLog.compareAndSet(last, now)) {
+            return;
+        }
+
+        LOG.warning("Slow watcher "
+                + watcher.getClass().getName()
+                + " took "
+                + TimeUnit.NANOSECONDS.toMillis(took)
+                + "ms to process "
+                + event
+                + " ("
+                + stats.getSlowEvents()
+                + " slow events so far, "
+                + stats.getQueueDepth()
+                + " queued)");
+    }
+}
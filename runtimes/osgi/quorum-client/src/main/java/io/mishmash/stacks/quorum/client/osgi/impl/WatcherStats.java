@@ -0,0 +1,105 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.client.osgi.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class WatcherStats {
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder slowEvents = new LongAdder();
+    private final LongAdder queuedNanos = new LongAdder();
+    private final LongAdder processNanos = new LongAdder();
+    private final AtomicLong maxProcessNanos = new AtomicLong();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    void recordEnqueued() {
+        int depth = queueDepth.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    void recordDequeued() {
+        queueDepth.decrementAndGet();
+    }
+
+    void recordDelivery(
+            final long queued,
+            final long took,
+            final boolean failed,
+            final boolean slow) {
+        events.increment();
+        queuedNanos.add(queued);
+        processNanos.add(took);
+        maxProcessNanos.accumulateAndGet(took, Math::max);
+
+        if (failed) {
+            failures.increment();
+        }
+
+        if (slow) {
+            slowEvents.increment();
+        }
+    }
+
+    public long getEvents() {
+        return events.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getSlowEvents() {
+        return slowEvents.sum();
+    }
+
+    public long getQueuedNanos() {
+        return queuedNanos.sum();
+    }
+
+    public long getProcessNanos() {
+        return processNanos.sum();
+    }
+
+    public long getMaxProcessNanos() {
+        return maxProcessNanos.get();
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public void reset() {
+        events.reset();
+        failures.reset();
+        slowEvents.reset();
+        queuedNanos.reset();
+        processNanos.reset();
+        maxProcessNanos.set(0);
+        maxQueueDepth.set(queueDepth.get());
+    }
+}
@@ -175,6 +175,8 @@ public class ZooKeeper implements AutoCloseable {
 
     protected final HostProvider hostProvider;
 
+    private final DefaultOsgiWatcher osgiWatcher;
+
     /**
      * This function allows a client to update the connection string by providing
      * a new comma separated list of host:port pairs, each corresponding to a
@@ -220,6 +222,12 @@ public class ZooKeeper implements AutoCloseable {
         ClientCnxnSocket clientCnxnSocket = cnxn.sendThread.getClientCnxnSocket();
         InetSocketAddress currentHost = (InetSocketAddress) clientCnxnSocket.getRemoteSocketAddress();
 
+        // keep following the OSGi services published for the new quorum
+        osgiWatcher.setConnectString(connectString);
+        if (hostProvider instanceof DefaultOsgiHostProvider osgiHostProvider) {
+            osgiHostProvider.setConnectString(connectString);
+        }
+
         boolean reconfigMode = hostProvider.updateServerList(serverAddresses, currentHost);
 
         // cause disconnection - this will cause next to be called
@@ -638,7 +646,7 @@ public class ZooKeeper implements AutoCloseable {
         HostProvider hostProvider,
         ZKClientConfig clientConfig
     ) throws IOException {
-        watcher = new DefaultOsgiWatcher(connectString, watcher);
+        watcher = osgiWatcher = new DefaultOsgiWatcher(connectString, watcher);
         LOG.info(
             "Initiating client connection, connectString={} sessionTimeout={} watcher={}",
             connectString,
@@ -1036,7 +1044,7 @@ public class ZooKeeper implements AutoCloseable {
         boolean canBeReadOnly,
         HostProvider hostProvider,
         ZKClientConfig clientConfig) throws IOException {
-        watcher = new DefaultOsgiWatcher(connectString, watcher);
+        watcher = osgiWatcher = new DefaultOsgiWatcher(connectString, watcher);
         LOG.info(
             "Initiating client connection, connectString={} "
                 + "sessionTimeout={} watcher={} sessionId=0x{} sessionPasswd={}",
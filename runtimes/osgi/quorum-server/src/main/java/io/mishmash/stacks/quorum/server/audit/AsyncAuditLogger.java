@@ -0,0 +1,330 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.audit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.zookeeper.audit.AuditEvent;
+import org.apache.zookeeper.audit.AuditLogger;
+import org.apache.zookeeper.audit.Slf4jAuditLogger;
+
+import io.mishmash.stacks.quorum.server.osgi.impl.AuditSinksTracker;
+import io.mishmash.stacks.quorum.server.osgi.impl.AuditStats;
+
+/**
+ * An audit logger that keeps audit writes off the request path.
+ *
+ * Events are put in a bounded lock-free ring and written in batches
+ * by a background thread to every {@link AuditSink} published as an
+ * OSGi service, and to a rolling local file if one is configured.
+ * Without either, events are passed on to {@link Slf4jAuditLogger}.
+ *
+ * When the ring is full events are dropped, or the logging thread
+ * waits for room if {@value #PROP_ON_FULL} is {@code block}. Both are
+ * counted and reported over JMX.
+ *
+ * Configured through system properties, like the other audit loggers,
+ * and selected by setting {@code zookeeper.audit.impl.class} to the name
+ * of this class.
+ *
+ * The writer thread and its shutdown hook are stopped on JVM shutdown,
+ * or by {@link #stopAll()} when the server bundle stops. Events logged
+ * after that are passed on to {@link Slf4jAuditLogger} right away.
+ */
+public class AsyncAuditLogger implements AuditLogger {
+
+    /**
+     * The capacity of the ring, rounded up to a power of two.
+     */
+    public static final String PROP_BUFFER_SIZE =
+            "zookeeper.audit.async.bufferSize";
+
+    /**
+     * The maximum number of events written at once.
+     */
+    public static final String PROP_BATCH_SIZE =
+            "zookeeper.audit.async.batchSize";
+
+    /**
+     * What to do when the ring is full, {@code drop} or {@code block}.
+     */
+    public static final String PROP_ON_FULL = "zookeeper.audit.async.onFull";
+
+    /**
+     * The path of the local audit file, none if not set.
+     */
+    public static final String PROP_FILE = "zookeeper.audit.async.file";
+
+    /**
+     * The size at which the local audit file is rolled over.
+     */
+    public static final String PROP_FILE_MAX_BYTES =
+            "zookeeper.audit.async.file.maxBytes";
+
+    /**
+     * The number of rolled over audit files to keep.
+     */
+    public static final String PROP_FILE_MAX_FILES =
+            "zookeeper.audit.async.file.maxFiles";
+
+    private static final long IDLE_PARK_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS =
+            TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long WARN_INTERVAL_NANOS =
+            TimeUnit.SECONDS.toNanos(10);
+    private static final long SHUTDOWN_WAIT_MILLIS = 1000;
+
+    private static final Logger LOG =
+            Logger.getLogger(AsyncAuditLogger.class.getName());
+
+    private static final Set<AsyncAuditLogger> running =
+            ConcurrentHashMap.newKeySet();
+
+    private final AuditRing ring;
+    private final int batchSize;
+    private final boolean block;
+    private final RollingFileAuditSink file;
+    private final AuditLogger fallback = new Slf4jAuditLogger();
+
+    private volatile Thread writer;
+    private Thread shutdownHook;
+    private volatile boolean idle;
+    private volatile boolean stopping;
+    private long lastWarn = System.nanoTime() - WARN_INTERVAL_NANOS;
+
+    /**
+     * Create an asynchronous audit logger configured from
+     * system properties.
+     */
+    public AsyncAuditLogger() {
+        ring = new AuditRing(Integer.getInteger(PROP_BUFFER_SIZE, 65536));
+        batchSize = Math.max(1, Integer.getInteger(PROP_BATCH_SIZE, 1024));
+        block = "block".equalsIgnoreCase(System.getProperty(PROP_ON_FULL));
+
+        String path = System.getProperty(PROP_FILE);
+        file = path == null
+                ? null
+                : new RollingFileAuditSink(
+                        Path.of(path),
+                        Long.getLong(PROP_FILE_MAX_BYTES, 64L * 1024 * 1024),
+                        Integer.getInteger(PROP_FILE_MAX_FILES, 10));
+    }
+
+    @Override
+    public synchronized void initialize() {
+        if (writer != null) {
+            return;
+        }
+
+        Thread t = new Thread(this::run, "quorum-audit-writer");
+        t.setDaemon(true);
+        writer = t;
+        t.start();
+
+        shutdownHook = new Thread(this::stop, "quorum-audit-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        running.add(this);
+    }
+
+    /**
+     * Stop the writer threads of all asynchronous audit loggers, after
+     * they write the events still waiting, and remove their shutdown
+     * hooks.
+     */
+    public static void stopAll() {
+        for (AsyncAuditLogger logger : running) {
+            logger.close();
+        }
+    }
+
+    private synchronized void close() {
+        if (shutdownHook == null) {
+            return;
+        }
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // the JVM is shutting down, the hook is running
+        }
+
+        shutdownHook = null;
+        running.remove(this);
+        stop();
+    }
+
+    @Override
+    public void logAuditEvent(final AuditEvent auditEvent) {
+        if (stopping) {
+            // no writer to hand the event to
+            fallback.logAuditEvent(auditEvent);
+            AuditStats.logged.increment();
+            AuditStats.written.increment();
+
+            return;
+        }
+
+        if (!ring.offer(auditEvent)) {
+            if (!block || stopping) {
+                AuditStats.dropped.increment();
+                return;
+            }
+
+            AuditStats.blocked.increment();
+            do {
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            } while (!ring.offer(auditEvent));
+        }
+
+        AuditStats.logged.increment();
+
+        if (stopping) {
+            // stopped while the event was added, it may have missed the writer
+            drainStopped();
+        } else if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Get the capacity of the ring.
+     *
+     * @return the maximum number of events waiting to be written
+     */
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+
+        while (true) {
+            if (ring.drain(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+                continue;
+            }
+
+            if (stopping) {
+                break;
+            }
+
+            idle = true;
+            if (ring.isEmpty()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Failed to close audit file", e);
+            }
+        }
+    }
+
+    private void write(final List<AuditEvent> batch) {
+        List<AuditSink> sinks = AuditSinksTracker.getSinks();
+
+        AuditStats.batches.increment();
+
+        if (sinks.isEmpty() && file == null) {
+            batch.forEach(fallback::logAuditEvent);
+        } else {
+            for (AuditSink sink : sinks) {
+                write(sink, batch);
+            }
+
+            if (file != null) {
+                write(file, batch);
+            }
+        }
+
+        AuditStats.written.add(batch.size());
+    }
+
+    private void write(final AuditSink sink, final List<AuditEvent> batch) {
+        try {
+            sink.write(batch);
+        } catch (IOException | RuntimeException e) {
+            AuditStats.sinkErrors.increment();
+
+            long now = System.nanoTime();
+            if (now - lastWarn >= WARN_INTERVAL_NANOS) {
+                lastWarn = now;
+                LOG.log(Level.WARNING, "Failed to write audit events", e);
+            }
+        }
+    }
+
+    /*
+     * Once the writer has exited, write what it left in the ring.
+     * The ring has a single consumer, the lock keeps it that way
+     * among the logging threads.
+     */
+    private void drainStopped() {
+        Thread t = writer;
+
+        try {
+            t.join(SHUTDOWN_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (t.isAlive()) {
+            // still writing, and will drain the ring before it exits
+            return;
+        }
+
+        synchronized (ring) {
+            List<AuditEvent> batch = new ArrayList<>(batchSize);
+
+            while (ring.drain(batch, batchSize) > 0) {
+                batch.forEach(fallback::logAuditEvent);
+                AuditStats.written.add(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void stop() {
+        stopping = true;
+
+        Thread t = writer;
+        LockSupport.unpark(t);
+
+        try {
+            t.join(SHUTDOWN_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
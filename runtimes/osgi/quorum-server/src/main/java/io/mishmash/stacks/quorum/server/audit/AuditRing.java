@@ -0,0 +1,109 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.zookeeper.audit.AuditEvent;
+
+/*
+ * A bounded, lock-free ring of audit events with many producers and
+ * a single consumer.
+ *
+ * Each slot has a sequence number telling whose turn it is: producers
+ * claim a slot by moving the tail forward, then publish the event by
+ * advancing the slot sequence, which the consumer waits for.
+ */
+final class AuditRing {
+
+    private final AuditEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    /* only touched by the consumer */
+    private long head;
+
+    AuditRing(final int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+
+        slots = new AuditEvent[size];
+        sequences = new AtomicLongArray(size);
+        mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(final AuditEvent event) {
+        long t;
+        int idx;
+
+        while (true) {
+            t = tail.get();
+            idx = (int) (t & mask);
+
+            long diff = sequences.get(idx) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                /* the consumer has not freed this slot yet */
+                return false;
+            }
+        }
+
+        slots[idx] = event;
+        sequences.set(idx, t + 1);
+
+        return true;
+    }
+
+    int drain(final List<AuditEvent> into, final int max) {
+        int n = 0;
+
+        while (n < max) {
+            int idx = (int) (head & mask);
+
+            if (sequences.get(idx) != head + 1) {
+                break;
+            }
+
+            into.add(slots[idx]);
+            slots[idx] = null;
+            sequences.set(idx, head + mask + 1);
+            head++;
+            n++;
+        }
+
+        return n;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
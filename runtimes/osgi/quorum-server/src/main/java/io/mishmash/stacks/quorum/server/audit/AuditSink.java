@@ -0,0 +1,43 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.audit;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.zookeeper.audit.AuditEvent;
+
+/**
+ * A destination for audit events written by {@link AsyncAuditLogger}.
+ *
+ * Publish implementations as OSGi services to receive the audit
+ * events of the quorum servers running in the same framework.
+ * Batches are written from a single background thread.
+ */
+@FunctionalInterface
+public interface AuditSink {
+
+    /**
+     * Write a batch of audit events, in the order they were logged.
+     *
+     * @param events the events to write
+     * @throws IOException if the events could not be written
+     */
+    void write(List<AuditEvent> events) throws IOException;
+}
@@ -0,0 +1,135 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.apache.zookeeper.audit.AuditEvent;
+
+/**
+ * Writes audit events to a local file, one event per line, rolling
+ * it over when it grows past a given size.
+ *
+ * Rolled over files get a numeric suffix, {@code .1} being the most
+ * recent one, and only the configured number of them is kept.
+ */
+public class RollingFileAuditSink implements AuditSink, AutoCloseable {
+
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+
+    private BufferedWriter writer;
+    private long written;
+
+    /**
+     * Create a rolling file sink.
+     *
+     * @param auditFile the file to write to
+     * @param maxFileBytes the size at which the file is rolled over
+     * @param maxRolledFiles the number of rolled over files to keep
+     */
+    public RollingFileAuditSink(
+            final Path auditFile,
+            final long maxFileBytes,
+            final int maxRolledFiles) {
+        file = auditFile;
+        maxBytes = maxFileBytes;
+        maxFiles = maxRolledFiles;
+    }
+
+    @Override
+    public synchronized void write(final List<AuditEvent> events)
+            throws IOException {
+        if (writer == null) {
+            open();
+        }
+
+        for (AuditEvent event : events) {
+            String line = event.toString();
+
+            writer.write(line);
+            writer.newLine();
+            /* close enough, audit lines are mostly ascii */
+            written += line.length() + 1;
+        }
+
+        writer.flush();
+
+        if (written >= maxBytes) {
+            roll();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        OutputStream out = Files.newOutputStream(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        written = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        close();
+
+        Files.deleteIfExists(rolled(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path from = rolled(i);
+
+            if (Files.exists(from)) {
+                Files.move(from, rolled(i + 1),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        if (maxFiles > 0) {
+            Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path rolled(final int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
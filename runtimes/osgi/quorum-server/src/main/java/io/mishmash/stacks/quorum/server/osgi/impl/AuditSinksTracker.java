@@ -0,0 +1,72 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.osgi.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+
+import io.mishmash.stacks.quorum.server.audit.AsyncAuditLogger;
+import io.mishmash.stacks.quorum.server.audit.AuditSink;
+
+/*
+ * Keeps track of the audit sinks published as OSGi services.
+ *
+ * Also stops the asynchronous audit writers when the bundle stops,
+ * so that their threads and shutdown hooks do not outlive it.
+ */
+@Component(immediate=true)
+public class AuditSinksTracker {
+
+    private static volatile List<AuditSink> sinks = List.of();
+
+    @Reference(
+            service=AuditSink.class,
+            cardinality=ReferenceCardinality.MULTIPLE,
+            policy=ReferencePolicy.DYNAMIC)
+    protected void addSink(final AuditSink sink) {
+        synchronized (AuditSinksTracker.class) {
+            List<AuditSink> res = new ArrayList<>(sinks);
+            res.add(sink);
+            sinks = List.copyOf(res);
+        }
+    }
+
+    protected void removeSink(final AuditSink sink) {
+        synchronized (AuditSinksTracker.class) {
+            List<AuditSink> res = new ArrayList<>(sinks);
+            res.remove(sink);
+            sinks = List.copyOf(res);
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        AsyncAuditLogger.stopAll();
+    }
+
+    public static List<AuditSink> getSinks() {
+        return sinks;
+    }
+}
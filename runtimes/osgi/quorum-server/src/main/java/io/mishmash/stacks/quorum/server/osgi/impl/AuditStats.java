@@ -0,0 +1,46 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.osgi.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Counters of the asynchronous audit loggers.
+ */
+public final class AuditStats {
+
+    public static final LongAdder logged = new LongAdder();
+    public static final LongAdder dropped = new LongAdder();
+    public static final LongAdder blocked = new LongAdder();
+    public static final LongAdder written = new LongAdder();
+    public static final LongAdder batches = new LongAdder();
+    public static final LongAdder sinkErrors = new LongAdder();
+
+    private AuditStats() {
+    }
+
+    static void reset() {
+        logged.reset();
+        dropped.reset();
+        blocked.reset();
+        written.reset();
+        batches.reset();
+        sinkErrors.reset();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.osgi.impl;
+
+import java.util.Map;
+
+import org.apache.zookeeper.server.auth.AuthenticationProvider;
+import org.apache.zookeeper.server.auth.ProviderRegistry;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+
+/*
+ * Feeds authentication providers published as OSGi services into
+ * the server provider registry, as they come and go, along with
+ * their service rankings.
+ */
+@Component(immediate=true)
+public class AuthProvidersTracker {
+
+    private static final String PROP_RANKING = "service.ranking";
+
+    @Reference(
+            service=AuthenticationProvider.class,
+            cardinality=ReferenceCardinality.MULTIPLE,
+            policy=ReferencePolicy.DYNAMIC)
+    protected void addProvider(
+            final AuthenticationProvider provider,
+            final Map<String, Object> props) {
+        ProviderRegistry.addServiceProvider(provider, ranking(props));
+    }
+
+    protected void updatedProvider(
+            final AuthenticationProvider provider,
+            final Map<String, Object> props) {
+        ProviderRegistry.addServiceProvider(provider, ranking(props));
+    }
+
+    protected void removeProvider(final AuthenticationProvider provider) {
+        ProviderRegistry.removeServiceProvider(provider);
+    }
+
+    private static int ranking(final Map<String, Object> props) {
+        return props.get(PROP_RANKING) instanceof Integer i ? i : 0;
+    }
+}
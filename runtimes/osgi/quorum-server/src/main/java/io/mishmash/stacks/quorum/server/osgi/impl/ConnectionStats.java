@@ -0,0 +1,98 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.osgi.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.zookeeper.server.ServerCnxnFactory;
+
+/*
+ * Connection counters of all quorum server connection factories,
+ * also standing in for per-connection MBeans when those are off.
+ */
+public final class ConnectionStats {
+
+    private static final LongAdder registered = new LongAdder();
+    private static final LongAdder closed = new LongAdder();
+
+    /* guarded by itself */
+    private static final Set<ServerCnxnFactory> factories =
+            Collections.newSetFromMap(new WeakHashMap<>());
+
+    private ConnectionStats() {
+    }
+
+    public static void track(final ServerCnxnFactory factory) {
+        synchronized (factories) {
+            factories.add(factory);
+        }
+    }
+
+    public static void registered() {
+        registered.increment();
+    }
+
+    public static void closed() {
+        closed.increment();
+    }
+
+    static long getRegistered() {
+        return registered.sum();
+    }
+
+    static long getClosed() {
+        return closed.sum();
+    }
+
+    static int getAlive() {
+        int res = 0;
+
+        for (ServerCnxnFactory f : factories()) {
+            res += f.getNumAliveConnections();
+        }
+
+        return res;
+    }
+
+    static List<String> describe() {
+        List<String> res = new ArrayList<>();
+
+        for (ServerCnxnFactory f : factories()) {
+            f.getAllConnectionInfo(true).forEach(i -> res.add(i.toString()));
+        }
+
+        return res;
+    }
+
+    static void reset() {
+        registered.reset();
+        closed.reset();
+    }
+
+    private static List<ServerCnxnFactory> factories() {
+        synchronized (factories) {
+            return new ArrayList<>(factories);
+        }
+    }
+}
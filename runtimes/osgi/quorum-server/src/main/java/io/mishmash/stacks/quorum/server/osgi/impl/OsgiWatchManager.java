@@ -0,0 +1,157 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.osgi.impl;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.Watcher.Event.EventType;
+import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.server.watch.IWatchManager;
+import org.apache.zookeeper.server.watch.WatcherMode;
+import org.apache.zookeeper.server.watch.WatcherOrBitSet;
+import org.apache.zookeeper.server.watch.WatchesPathReport;
+import org.apache.zookeeper.server.watch.WatchesReport;
+import org.apache.zookeeper.server.watch.WatchesSummary;
+import org.osgi.service.component.ComponentServiceObjects;
+
+/*
+ * A watch manager obtained from an OSGi service, released back to
+ * the service when its data tree shuts it down.
+ */
+class OsgiWatchManager implements IWatchManager {
+
+    private static final Logger LOG =
+            Logger.getLogger(OsgiWatchManager.class.getName());
+
+    private final ComponentServiceObjects<IWatchManager> objects;
+    private final IWatchManager delegate;
+
+    OsgiWatchManager(
+            final ComponentServiceObjects<IWatchManager> serviceObjects,
+            final IWatchManager manager) {
+        objects = serviceObjects;
+        delegate = manager;
+    }
+
+    @Override
+    public boolean addWatch(final String path, final Watcher watcher) {
+        return delegate.addWatch(path, watcher);
+    }
+
+    @Override
+    public boolean addWatch(
+            final String path,
+            final Watcher watcher,
+            final WatcherMode watcherMode) {
+        return delegate.addWatch(path, watcher, watcherMode);
+    }
+
+    @Override
+    public boolean containsWatcher(final String path, final Watcher watcher) {
+        return delegate.containsWatcher(path, watcher);
+    }
+
+    @Override
+    public boolean containsWatcher(
+            final String path,
+            final Watcher watcher,
+            final WatcherMode watcherMode) {
+        return delegate.containsWatcher(path, watcher, watcherMode);
+    }
+
+    @Override
+    public boolean removeWatcher(final String path, final Watcher watcher) {
+        return delegate.removeWatcher(path, watcher);
+    }
+
+    @Override
+    public boolean removeWatcher(
+            final String path,
+            final Watcher watcher,
+            final WatcherMode watcherMode) {
+        return delegate.removeWatcher(path, watcher, watcherMode);
+    }
+
+    @Override
+    public void removeWatcher(final Watcher watcher) {
+        delegate.removeWatcher(watcher);
+    }
+
+    @Override
+    public WatcherOrBitSet triggerWatch(
+            final String path,
+            final EventType type,
+            final long zxid,
+            final List<ACL> acl) {
+        return delegate.triggerWatch(path, type, zxid, acl);
+    }
+
+    @Override
+    public WatcherOrBitSet triggerWatch(
+            final String path,
+            final EventType type,
+            final long zxid,
+            final List<ACL> acl,
+            final WatcherOrBitSet suppress) {
+        return delegate.triggerWatch(path, type, zxid, acl, suppress);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void shutdown() {
+        try {
+            delegate.shutdown();
+        } finally {
+            try {
+                objects.ungetService(delegate);
+            } catch (RuntimeException e) {
+                LOG.log(Level.FINE,
+                        "Watch manager service already gone", e);
+            }
+        }
+    }
+
+    @Override
+    public WatchesSummary getWatchesSummary() {
+        return delegate.getWatchesSummary();
+    }
+
+    @Override
+    public WatchesReport getWatches() {
+        return delegate.getWatches();
+    }
+
+    @Override
+    public WatchesPathReport getWatchesByPath() {
+        return delegate.getWatchesByPath();
+    }
+
+    @Override
+    public void dumpWatches(final PrintWriter pwriter, final boolean byPath) {
+        delegate.dumpWatches(pwriter, byPath);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.osgi.impl;
+
+import java.util.List;
+
+public interface QuorumConnectionsMXBean {
+
+    String OBJECT_NAME = "io.mishmash.stacks:type=QuorumConnections";
+
+    String getConnectionBeans();
+
+    int getAliveConnections();
+
+    long getRegisteredConnections();
+
+    long getClosedConnections();
+
+    List<String> describeConnections();
+
+    void resetStats();
+}
@@ -0,0 +1,193 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.osgi.impl;
+
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+
+/*
+ * Connection factory settings of the quorum server, taken from
+ * Config Admin.
+ *
+ * The factory and Netty settings are read when a connection factory
+ * is created, the rest for every connection. Event loop threads and
+ * the buffer allocator are Netty wide, they only take effect if set
+ * before Netty is first used.
+ *
+ * When the server is embedded without OSGi the same properties can
+ * be passed to apply().
+ */
+@Component(
+        immediate=true,
+        configurationPolicy=ConfigurationPolicy.OPTIONAL,
+        configurationPid={"quorumServerCnxn"})
+public class ServerCnxnConfig {
+
+    public static final String PROP_FACTORY = "quorum.server.cnxnFactory";
+    public static final String PROP_EVENT_LOOP_THREADS =
+            "quorum.server.netty.eventLoopThreads";
+    public static final String PROP_ALLOCATOR = "quorum.server.netty.allocator";
+    public static final String PROP_PREFER_DIRECT =
+            "quorum.server.netty.preferDirect";
+    public static final String PROP_TCP_NODELAY = "quorum.server.tcpNoDelay";
+    public static final String PROP_BACKLOG = "quorum.server.backlog";
+    public static final String PROP_WRITE_LOW_WATER_MARK =
+            "quorum.server.netty.writeBufferLowWaterMark";
+    public static final String PROP_WRITE_HIGH_WATER_MARK =
+            "quorum.server.netty.writeBufferHighWaterMark";
+    public static final String PROP_CONNECTION_BEANS =
+            "quorum.server.jmx.connectionBeans";
+
+    public static final String FACTORY_AUTO = "auto";
+    public static final String FACTORY_NETTY = "netty";
+    public static final String FACTORY_NIO = "nio";
+
+    public static final String ALLOCATOR_POOLED = "pooled";
+    public static final String ALLOCATOR_UNPOOLED = "unpooled";
+
+    public static final String CONNECTION_BEANS_EACH = "each";
+    public static final String CONNECTION_BEANS_AGGREGATED = "aggregated";
+
+    private static final String NETTY_EVENT_LOOP_THREADS =
+            "io.netty.eventLoopThreads";
+    private static final String NETTY_ALLOCATOR_TYPE =
+            "io.netty.allocator.type";
+    private static final String NETTY_NO_PREFER_DIRECT =
+            "io.netty.noPreferDirect";
+
+    private static final Logger LOG =
+            Logger.getLogger(ServerCnxnConfig.class.getName());
+
+    public record Settings(
+            String factory,
+            int eventLoopThreads,
+            String allocator,
+            boolean preferDirect,
+            boolean tcpNoDelay,
+            int backlog,
+            int writeLowWaterMark,
+            int writeHighWaterMark,
+            String connectionBeans) {
+
+        public boolean isConnectionBeanEach() {
+            return !CONNECTION_BEANS_AGGREGATED.equals(connectionBeans);
+        }
+    }
+
+    private static final Settings DEFAULTS = new Settings(
+            FACTORY_AUTO, 0, ALLOCATOR_POOLED, true, true, -1, 0, 0,
+            CONNECTION_BEANS_EACH);
+
+    private static volatile Settings settings = DEFAULTS;
+
+    @Activate
+    @Modified
+    private void configure(final Map<String, Object> props) {
+        apply(props);
+    }
+
+    @Deactivate
+    private void stop() {
+        settings = DEFAULTS;
+    }
+
+    public static void apply(final Map<String, Object> props) {
+        settings = new Settings(
+                String.valueOf(props.getOrDefault(
+                        PROP_FACTORY, DEFAULTS.factory())),
+                intValue(props, PROP_EVENT_LOOP_THREADS,
+                        DEFAULTS.eventLoopThreads()),
+                String.valueOf(props.getOrDefault(
+                        PROP_ALLOCATOR, DEFAULTS.allocator())),
+                Boolean.parseBoolean(String.valueOf(props.getOrDefault(
+                        PROP_PREFER_DIRECT, DEFAULTS.preferDirect()))),
+                Boolean.parseBoolean(String.valueOf(props.getOrDefault(
+                        PROP_TCP_NODELAY, DEFAULTS.tcpNoDelay()))),
+                intValue(props, PROP_BACKLOG, DEFAULTS.backlog()),
+                intValue(props, PROP_WRITE_LOW_WATER_MARK,
+                        DEFAULTS.writeLowWaterMark()),
+                intValue(props, PROP_WRITE_HIGH_WATER_MARK,
+                        DEFAULTS.writeHighWaterMark()),
+                String.valueOf(props.getOrDefault(
+                        PROP_CONNECTION_BEANS, DEFAULTS.connectionBeans())));
+
+        LOG.info("Quorum server connection settings: " + settings);
+    }
+
+    public static Settings getSettings() {
+        return settings;
+    }
+
+    /*
+     * Should the Netty factory be used when no factory class is set.
+     */
+    public static boolean preferNetty() {
+        return switch (settings.factory()) {
+            case FACTORY_NETTY -> true;
+            case FACTORY_NIO -> false;
+            default -> isEpollAvailable();
+        };
+    }
+
+    /*
+     * Pass the Netty wide settings on as system properties, unless
+     * they were set explicitly.
+     */
+    public static void applyNettyDefaults() {
+        Settings s = settings;
+
+        if (s.eventLoopThreads() > 0) {
+            setIfAbsent(NETTY_EVENT_LOOP_THREADS,
+                    Integer.toString(s.eventLoopThreads()));
+        }
+
+        setIfAbsent(NETTY_ALLOCATOR_TYPE, s.allocator());
+        setIfAbsent(NETTY_NO_PREFER_DIRECT,
+                Boolean.toString(!s.preferDirect()));
+    }
+
+    private static boolean isEpollAvailable() {
+        try {
+            return io.netty.channel.epoll.Epoll.isAvailable();
+        } catch (LinkageError e) {
+            /* netty is optional */
+            return false;
+        }
+    }
+
+    private static void setIfAbsent(final String key, final String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    private static int intValue(
+            final Map<String, Object> props,
+            final String key,
+            final int defaultValue) {
+        return Integer.parseInt(
+                String.valueOf(props.getOrDefault(key, defaultValue)));
+    }
+}
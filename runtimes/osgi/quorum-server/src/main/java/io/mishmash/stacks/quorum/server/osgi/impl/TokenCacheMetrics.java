@@ -0,0 +1,132 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.osgi.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.ObjectName;
+
+import org.apache.zookeeper.metrics.Gauge;
+import org.apache.zookeeper.metrics.MetricsContext;
+import org.apache.zookeeper.server.ServerMetrics;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+
+import io.mishmash.stacks.common.PlatformMBeans;
+import io.mishmash.stacks.oidc.sasl.VerifiedTokenCache;
+
+/*
+ * Publishes the counters of the shared OpenID verified token cache,
+ * as its MXBean and as gauges of the ZooKeeper metrics provider.
+ *
+ * Does nothing when the OpenID library is not available. The metrics
+ * provider is set up when a server starts, possibly after this
+ * component activates, so servers call attach() as they start.
+ */
+@Component(immediate=true)
+public class TokenCacheMetrics {
+
+    private static final Logger LOG =
+            Logger.getLogger(TokenCacheMetrics.class.getName());
+
+    /* all guarded by TokenCacheMetrics.class */
+    private static boolean active;
+    private static MetricsContext context;
+    private static Map<String, Gauge> gauges = Map.of();
+
+    private ObjectName objectName;
+
+    @Activate
+    protected void activate() {
+        try {
+            objectName = PlatformMBeans.register(
+                    VerifiedTokenCache.getInstance(),
+                    VerifiedTokenCache.OBJECT_NAME);
+        } catch (NoClassDefFoundError e) {
+            LOG.log(Level.FINE,
+                    "OpenID not available, token cache metrics disabled",
+                    e);
+
+            return;
+        }
+
+        synchronized (TokenCacheMetrics.class) {
+            active = true;
+            attach();
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        synchronized (TokenCacheMetrics.class) {
+            active = false;
+            detach();
+        }
+
+        PlatformMBeans.unregister(objectName);
+        objectName = null;
+    }
+
+    /*
+     * Register the gauges with the current metrics provider, unless
+     * they already are.
+     */
+    public static synchronized void attach() {
+        if (!active) {
+            return;
+        }
+
+        MetricsContext root = ServerMetrics.getMetrics()
+                .getMetricsProvider()
+                .getRootContext();
+        if (root == context) {
+            return;
+        }
+
+        detach();
+
+        VerifiedTokenCache cache = VerifiedTokenCache.getInstance();
+        Map<String, Gauge> res = new LinkedHashMap<>();
+        res.put("oidc_token_cache_size", cache::getSize);
+        res.put("oidc_token_cache_hits", cache::getHits);
+        res.put("oidc_token_cache_misses", cache::getMisses);
+        res.put("oidc_token_cache_hit_ratio", cache::getHitRatio);
+        res.put("oidc_token_verifications", cache::getVerifications);
+        res.put("oidc_token_verification_failures",
+                cache::getVerificationFailures);
+        res.put("oidc_token_verification_avg_ms",
+                cache::getAvgVerificationMillis);
+
+        res.forEach(root::registerGauge);
+        context = root;
+        gauges = res;
+    }
+
+    private static void detach() {
+        if (context != null) {
+            gauges.keySet().forEach(context::unregisterGauge);
+            context = null;
+            gauges = Map.of();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.osgi.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.zookeeper.server.watch.IWatchManager;
+import org.osgi.service.component.ComponentServiceObjects;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferenceScope;
+
+/*
+ * Keeps track of the watch managers published as OSGi services.
+ *
+ * Each data tree needs watch managers of its own, so implementations
+ * are expected to be prototype scoped services, named through
+ * the PROP_NAME service property.
+ */
+@Component(immediate=true)
+public class WatchManagersTracker {
+
+    public static final String PROP_NAME = "quorum.watchManager.name";
+
+    private static final String PROP_COMPONENT_NAME = "component.name";
+    private static final String PROP_RANKING = "service.ranking";
+
+    private record Entry(String name, String componentName, int ranking) {
+    }
+
+    /* guarded by itself */
+    private static final Map<ComponentServiceObjects<IWatchManager>, Entry>
+        managers = new HashMap<>();
+
+    @Reference(
+            service=IWatchManager.class,
+            cardinality=ReferenceCardinality.MULTIPLE,
+            policy=ReferencePolicy.DYNAMIC,
+            scope=ReferenceScope.PROTOTYPE_REQUIRED)
+    protected void addWatchManager(
+            final ComponentServiceObjects<IWatchManager> objects,
+            final Map<String, Object> props) {
+        synchronized (managers) {
+            managers.put(objects, entry(props));
+        }
+    }
+
+    protected void updatedWatchManager(
+            final ComponentServiceObjects<IWatchManager> objects,
+            final Map<String, Object> props) {
+        synchronized (managers) {
+            managers.replace(objects, entry(props));
+        }
+    }
+
+    protected void removeWatchManager(
+            final ComponentServiceObjects<IWatchManager> objects) {
+        synchronized (managers) {
+            managers.remove(objects);
+        }
+    }
+
+    /*
+     * Get a new watch manager from the highest ranked service published
+     * under the given name or component name, or null if there is none.
+     */
+    public static IWatchManager create(final String name) {
+        ComponentServiceObjects<IWatchManager> best = null;
+        int bestRanking = Integer.MIN_VALUE;
+
+        synchronized (managers) {
+            for (var e : managers.entrySet()) {
+                Entry entry = e.getValue();
+
+                if ((name.equals(entry.name())
+                            || name.equals(entry.componentName()))
+                        && (best == null || entry.ranking() > bestRanking)) {
+                    best = e.getKey();
+                    bestRanking = entry.ranking();
+                }
+            }
+        }
+
+        if (best == null) {
+            return null;
+        }
+
+        IWatchManager manager = best.getService();
+
+        return manager == null ? null : new OsgiWatchManager(best, manager);
+    }
+
+    private static Entry entry(final Map<String, Object> props) {
+        Object ranking = props.get(PROP_RANKING);
+
+        return new Entry(
+                (String) props.get(PROP_NAME),
+                (String) props.get(PROP_COMPONENT_NAME),
+                ranking instanceof Integer i ? i : 0);
+    }
+}
@@ -0,0 +1,636 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package io.mishmash.stacks.quorum.server.watch;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.Watcher.Event.EventType;
+import org.apache.zookeeper.Watcher.Event.KeeperState;
+import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.server.ServerCnxn;
+import org.apache.zookeeper.server.ServerWatcher;
+import org.apache.zookeeper.server.watch.IWatchManager;
+import org.apache.zookeeper.server.watch.WatcherMode;
+import org.apache.zookeeper.server.watch.WatcherOrBitSet;
+import org.apache.zookeeper.server.watch.WatchesPathReport;
+import org.apache.zookeeper.server.watch.WatchesReport;
+import org.apache.zookeeper.server.watch.WatchesSummary;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ServiceScope;
+
+/**
+ * A watch manager built for servers holding millions of watches.
+ *
+ * The default watch manager keeps a hash set of watchers for every
+ * watched path, and a map of paths for every watcher. This one gives
+ * each watcher a small integer id and keeps a single sorted
+ * {@code int} array per watched path, each element holding a watcher
+ * id and its watch modes. There is no index from watchers to paths:
+ * when a watcher goes away its id is marked dead, ignored from then
+ * on, and its watches are swept from all paths in the background,
+ * a bounded number of paths at a time so that the manager is never
+ * locked for long.
+ *
+ * Supports standard, persistent and persistent recursive watches.
+ *
+ * Published as a prototype scoped OSGi service named {@code compact},
+ * it can also be selected by its class name through
+ * the {@code zookeeper.watchManagerName} system property.
+ */
+@Component(
+        service=IWatchManager.class,
+        scope=ServiceScope.PROTOTYPE,
+        property={"quorum.watchManager.name=compact"})
+public class CompactWatchManager implements IWatchManager {
+
+    private static final int STANDARD = 1;
+    private static final int PERSISTENT = 2;
+    private static final int RECURSIVE = 4;
+    private static final int MODES = STANDARD | PERSISTENT | RECURSIVE;
+    private static final int MODE_BITS = 3;
+
+    /*
+     * Delay between a watcher going away and its watches being swept.
+     */
+    private static final long SWEEP_DELAY_MILLIS = 1000;
+
+    /*
+     * Number of paths swept before letting other threads in.
+     */
+    private static final int SWEEP_CHUNK = 1024;
+
+    private static final ScheduledExecutorService SWEEPER =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "quorum-watch-sweeper");
+                t.setDaemon(true);
+
+                return t;
+            });
+
+    /*
+     * Modified only while holding this, concurrent so that a sweep
+     * can walk it without holding the lock.
+     */
+    private final ConcurrentHashMap<String, int[]> watchTable =
+            new ConcurrentHashMap<>();
+
+    /* all fields below guarded by this */
+
+    private final HashMap<Watcher, Integer> ids = new HashMap<>();
+    private final ArrayList<Watcher> watchers = new ArrayList<>();
+    private int[] counts = new int[16];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private final BitSet dead = new BitSet();
+    private ScheduledFuture<?> sweep;
+
+    private int size;
+    private int recursiveWatches;
+
+    @Override
+    public boolean addWatch(final String path, final Watcher watcher) {
+        return addWatch(path, watcher, WatcherMode.STANDARD);
+    }
+
+    @Override
+    public synchronized boolean addWatch(
+            final String path,
+            final Watcher watcher,
+            final WatcherMode watcherMode) {
+        if (watcher instanceof ServerCnxn cnxn && cnxn.isStale()) {
+            /*
+             * the connection is closing, its watches would
+             * never be removed
+             */
+            return false;
+        }
+
+        int id = idOf(watcher);
+        int mode = mode(watcherMode);
+        int[] entries = watchTable.get(path);
+        int idx = find(entries, id);
+
+        if (idx >= 0) {
+            if ((entries[idx] & mode) != 0) {
+                return false;
+            }
+
+            entries[idx] |= mode;
+        } else {
+            int at = -idx - 1;
+            int[] res;
+
+            if (entries == null) {
+                res = new int[1];
+            } else {
+                res = new int[entries.length + 1];
+                System.arraycopy(entries, 0, res, 0, at);
+                System.arraycopy(entries, at, res, at + 1,
+                        entries.length - at);
+            }
+
+            res[at] = id << MODE_BITS | mode;
+            watchTable.put(path, res);
+            counts[id]++;
+            size++;
+        }
+
+        if (mode == RECURSIVE) {
+            recursiveWatches++;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean containsWatcher(final String path, final Watcher watcher) {
+        return containsWatcher(path, watcher, null);
+    }
+
+    @Override
+    public synchronized boolean containsWatcher(
+            final String path,
+            final Watcher watcher,
+            final WatcherMode watcherMode) {
+        Integer id = ids.get(watcher);
+        if (id == null) {
+            return false;
+        }
+
+        int[] entries = watchTable.get(path);
+        int idx = find(entries, id);
+
+        return idx >= 0
+                && (watcherMode == null
+                    || (entries[idx] & mode(watcherMode)) != 0);
+    }
+
+    @Override
+    public boolean removeWatcher(final String path, final Watcher watcher) {
+        return removeWatcher(path, watcher, null);
+    }
+
+    @Override
+    public synchronized boolean removeWatcher(
+            final String path,
+            final Watcher watcher,
+            final WatcherMode watcherMode) {
+        Integer id = ids.get(watcher);
+        if (id == null) {
+            return false;
+        }
+
+        int[] entries = watchTable.get(path);
+        int idx = find(entries, id);
+        if (idx < 0) {
+            return false;
+        }
+
+        int clear = watcherMode == null ? MODES : mode(watcherMode);
+        int entry = entries[idx];
+        if ((entry & clear) == 0) {
+            return false;
+        }
+
+        if ((entry & clear & RECURSIVE) != 0) {
+            recursiveWatches--;
+        }
+
+        if ((entry & ~clear & MODES) != 0) {
+            entries[idx] = entry & ~clear;
+        } else {
+            removeAt(path, entries, idx);
+            counts[id]--;
+            size--;
+        }
+
+        return true;
+    }
+
+    @Override
+    public synchronized void removeWatcher(final Watcher watcher) {
+        Integer id = ids.remove(watcher);
+        if (id == null) {
+            return;
+        }
+
+        dead.set(id);
+        size -= counts[id];
+        counts[id] = 0;
+
+        if (sweep == null) {
+            sweep = SWEEPER.schedule(
+                    this::sweep,
+                    SWEEP_DELAY_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public WatcherOrBitSet triggerWatch(
+            final String path,
+            final EventType type,
+            final long zxid,
+            final List<ACL> acl) {
+        return triggerWatch(path, type, zxid, acl, null);
+    }
+
+    @Override
+    public WatcherOrBitSet triggerWatch(
+            final String path,
+            final EventType type,
+            final long zxid,
+            final List<ACL> acl,
+            final WatcherOrBitSet suppress) {
+        Set<Watcher> triggered = new HashSet<>();
+
+        synchronized (this) {
+            int[] entries = watchTable.get(path);
+
+            if (entries != null) {
+                int kept = 0;
+
+                for (int i = 0; i < entries.length; i++) {
+                    int entry = entries[i];
+                    int id = entry >>> MODE_BITS;
+
+                    if (dead.get(id)) {
+                        if ((entry & RECURSIVE) != 0) {
+                            recursiveWatches--;
+                        }
+
+                        continue;
+                    }
+
+                    triggered.add(watchers.get(id));
+
+                    if ((entry & ~STANDARD & MODES) != 0) {
+                        entries[kept++] = entry & ~STANDARD;
+                    } else {
+                        counts[id]--;
+                        size--;
+                    }
+                }
+
+                if (kept == 0) {
+                    watchTable.remove(path);
+                } else if (kept < entries.length) {
+                    watchTable.put(path, Arrays.copyOf(entries, kept));
+                }
+            }
+
+            if (recursiveWatches > 0) {
+                for (String parent = parentOf(path);
+                        parent != null;
+                        parent = parentOf(parent)) {
+                    int[] parentEntries = watchTable.get(parent);
+                    if (parentEntries == null) {
+                        continue;
+                    }
+
+                    for (int entry : parentEntries) {
+                        int id = entry >>> MODE_BITS;
+
+                        if ((entry & RECURSIVE) != 0 && !dead.get(id)) {
+                            triggered.add(watchers.get(id));
+                        }
+                    }
+                }
+            }
+        }
+
+        if (triggered.isEmpty()) {
+            return null;
+        }
+
+        WatchedEvent e = new WatchedEvent(
+                type,
+                KeeperState.SyncConnected,
+                path,
+                zxid);
+
+        for (Watcher w : triggered) {
+            if (suppress != null && suppress.contains(w)) {
+                continue;
+            }
+
+            if (w instanceof ServerWatcher sw) {
+                sw.process(e, acl);
+            } else {
+                w.process(e);
+            }
+        }
+
+        return new WatcherOrBitSet(triggered);
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (sweep != null) {
+            sweep.cancel(false);
+            sweep = null;
+        }
+    }
+
+    @Override
+    public synchronized WatchesSummary getWatchesSummary() {
+        return new WatchesSummary(ids.size(), watchTable.size(), size);
+    }
+
+    @Override
+    public synchronized WatchesReport getWatches() {
+        Map<Long, Set<String>> res = new HashMap<>();
+
+        forEachWatch((path, w) -> res
+                .computeIfAbsent(sessionId(w), k -> new HashSet<>())
+                .add(path));
+
+        return new WatchesReport(res);
+    }
+
+    @Override
+    public synchronized WatchesPathReport getWatchesByPath() {
+        Map<String, Set<Long>> res = new HashMap<>();
+
+        forEachWatch((path, w) -> res
+                .computeIfAbsent(path, k -> new HashSet<>())
+                .add(sessionId(w)));
+
+        return new WatchesPathReport(res);
+    }
+
+    @Override
+    public synchronized void dumpWatches(
+            final PrintWriter pwriter,
+            final boolean byPath) {
+        if (byPath) {
+            for (var e : getWatchesByPath().toMap().entrySet()) {
+                pwriter.println(e.getKey());
+                for (long session : e.getValue()) {
+                    pwriter.print("\t0x");
+                    pwriter.print(Long.toHexString(session));
+                    pwriter.print("\n");
+                }
+            }
+        } else {
+            for (var e : getWatches().toMap().entrySet()) {
+                pwriter.print("0x");
+                pwriter.println(Long.toHexString(e.getKey()));
+                for (String path : e.getValue()) {
+                    pwriter.print("\t");
+                    pwriter.println(path);
+                }
+            }
+        }
+
+        pwriter.flush();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return ids.size() + " connections watching "
+                + watchTable.size() + " paths\n"
+                + "Total watches:" + size;
+    }
+
+    /*
+     * Drop the watches of all dead watchers and recycle their ids.
+     *
+     * Runs on the sweeper thread, taking the lock for one chunk of
+     * paths at a time. Ids that die while a sweep is running are
+     * left for the next one.
+     */
+    private void sweep() {
+        BitSet swept;
+
+        synchronized (this) {
+            if (dead.isEmpty()) {
+                sweep = null;
+
+                return;
+            }
+
+            swept = (BitSet) dead.clone();
+        }
+
+        /*
+         * Paths added after the walk started cannot hold a swept id:
+         * those ids are not given out again until the walk is over.
+         */
+        Iterator<String> it = watchTable.keySet().iterator();
+        List<String> chunk = new ArrayList<>(SWEEP_CHUNK);
+
+        while (it.hasNext()) {
+            chunk.clear();
+            while (it.hasNext() && chunk.size() < SWEEP_CHUNK) {
+                chunk.add(it.next());
+            }
+
+            synchronized (this) {
+                if (sweep == null) {
+                    // shut down
+                    return;
+                }
+
+                for (String path : chunk) {
+                    sweepPath(path);
+                }
+            }
+        }
+
+        synchronized (this) {
+            if (sweep == null) {
+                return;
+            }
+
+            for (int id = swept.nextSetBit(0);
+                    id >= 0;
+                    id = swept.nextSetBit(id + 1)) {
+                watchers.set(id, null);
+
+                if (freeCount == freeIds.length) {
+                    freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+                }
+
+                freeIds[freeCount++] = id;
+            }
+
+            dead.andNot(swept);
+
+            sweep = dead.isEmpty()
+                    ? null
+                    : SWEEPER.schedule(
+                            this::sweep,
+                            SWEEP_DELAY_MILLIS,
+                            TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void sweepPath(final String path) {
+        int[] entries = watchTable.get(path);
+        if (entries == null) {
+            return;
+        }
+
+        int kept = 0;
+
+        for (int entry : entries) {
+            if (dead.get(entry >>> MODE_BITS)) {
+                if ((entry & RECURSIVE) != 0) {
+                    recursiveWatches--;
+                }
+            } else {
+                entries[kept++] = entry;
+            }
+        }
+
+        if (kept == 0) {
+            watchTable.remove(path);
+        } else if (kept < entries.length) {
+            watchTable.put(path, Arrays.copyOf(entries, kept));
+        }
+    }
+
+    private int idOf(final Watcher watcher) {
+        Integer id = ids.get(watcher);
+        if (id != null) {
+            return id;
+        }
+
+        int res;
+        if (freeCount > 0) {
+            res = freeIds[--freeCount];
+            watchers.set(res, watcher);
+        } else {
+            res = watchers.size();
+            watchers.add(watcher);
+
+            if (res == counts.length) {
+                counts = Arrays.copyOf(counts, res * 2);
+            }
+        }
+
+        ids.put(watcher, res);
+
+        return res;
+    }
+
+    private void removeAt(
+            final String path,
+            final int[] entries,
+            final int idx) {
+        if (entries.length == 1) {
+            watchTable.remove(path);
+        } else {
+            int[] res = new int[entries.length - 1];
+            System.arraycopy(entries, 0, res, 0, idx);
+            System.arraycopy(entries, idx + 1, res, idx,
+                    entries.length - idx - 1);
+            watchTable.put(path, res);
+        }
+    }
+
+    private void forEachWatch(final WatchConsumer consumer) {
+        for (var e : watchTable.entrySet()) {
+            for (int entry : e.getValue()) {
+                int id = entry >>> MODE_BITS;
+
+                if (!dead.get(id)) {
+                    consumer.accept(e.getKey(), watchers.get(id));
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface WatchConsumer {
+        void accept(String path, Watcher watcher);
+    }
+
+    /*
+     * Binary search for a watcher id, entries are sorted by id
+     * as it takes the high bits.
+     */
+    private static int find(final int[] entries, final int id) {
+        if (entries == null) {
+            return -1;
+        }
+
+        int lo = 0;
+        int hi = entries.length - 1;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midId = entries[mid] >>> MODE_BITS;
+
+            if (midId < id) {
+                lo = mid + 1;
+            } else if (midId > id) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -(lo + 1);
+    }
+
+    private static int mode(final WatcherMode watcherMode) {
+        return switch (watcherMode) {
+            case STANDARD -> STANDARD;
+            case PERSISTENT -> PERSISTENT;
+            case PERSISTENT_RECURSIVE -> RECURSIVE;
+        };
+    }
+
+    private static String parentOf(final String path) {
+        if ("/".equals(path)) {
+            return null;
+        }
+
+        int idx = path.lastIndexOf('/');
+
+        return idx <= 0 ? "/" : path.substring(0, idx);
+    }
+
+    private static long sessionId(final Watcher watcher) {
+        return watcher instanceof ServerCnxn cnxn ? cnxn.getSessionId() : 0;
+    }
+}
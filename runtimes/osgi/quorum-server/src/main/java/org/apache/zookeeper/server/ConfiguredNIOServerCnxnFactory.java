@@ -0,0 +1,42 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+
+package org.apache.zookeeper.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * The NIO connection factory, with the listen backlog taken from
+ * the quorum server connection settings when it is not set in the
+ * server config.
+ *
+ * Created by {@link ServerCnxnFactory#createFactory()} in place of
+ * {@link NIOServerCnxnFactory}, as the server configures it directly.
+ */
+final class ConfiguredNIOServerCnxnFactory extends NIOServerCnxnFactory {
+
+    ConfiguredNIOServerCnxnFactory() {
+    }
+
+    @Override
+    public void configure(InetSocketAddress addr, int maxcc, int backlog, boolean secure) throws IOException {
+        super.configure(addr, maxcc, listenBacklog(backlog), secure);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+
+package org.apache.zookeeper.server;
+
+import io.netty.util.concurrent.EventExecutor;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Netty connection factory, with the listen backlog taken from
+ * the quorum server connection settings when it is not set in the
+ * server config.
+ *
+ * On shutdown it also stops the executor of the factory's channel
+ * group. {@link NettyServerCnxnFactory} never does, and that
+ * non-daemon thread outlives the server, one for every factory
+ * created.
+ *
+ * Created by {@link ServerCnxnFactory#createFactory()} in place of
+ * {@link NettyServerCnxnFactory}, as the server configures it directly.
+ */
+final class ConfiguredNettyServerCnxnFactory extends NettyServerCnxnFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConfiguredNettyServerCnxnFactory.class);
+
+    ConfiguredNettyServerCnxnFactory() {
+    }
+
+    @Override
+    public void configure(InetSocketAddress addr, int maxcc, int backlog, boolean secure) throws IOException {
+        super.configure(addr, maxcc, listenBacklog(backlog), secure);
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+
+        try {
+            Field channels = NettyServerCnxnFactory.class.getDeclaredField("allChannels");
+            channels.setAccessible(true);
+            Object group = channels.get(this);
+            Field executor = group.getClass().getDeclaredField("executor");
+            executor.setAccessible(true);
+            ((EventExecutor) executor.get(group)).shutdownGracefully();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.warn("Cannot stop the channel group executor", e);
+        }
+    }
+}
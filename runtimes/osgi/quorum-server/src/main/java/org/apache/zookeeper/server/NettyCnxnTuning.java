@@ -0,0 +1,54 @@
+/*
+ *    Copyright 2026 Mishmash IO UK Ltd.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.apache.zookeeper.server;
+
+import io.mishmash.stacks.quorum.server.osgi.impl.ServerCnxnConfig;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+
+/**
+ * Applies the configured per-connection options to the channels
+ * of a Netty connection factory.
+ *
+ * Kept apart from {@link ServerCnxnFactory} so that the Netty classes
+ * are only loaded when Netty is in use.
+ */
+final class NettyCnxnTuning {
+
+    private NettyCnxnTuning() {
+    }
+
+    static void tune(ServerCnxn cnxn) {
+        if (!(cnxn instanceof NettyServerCnxn)) {
+            return;
+        }
+
+        ServerCnxnConfig.Settings settings = ServerCnxnConfig.getSettings();
+        Channel channel = ((NettyServerCnxn) cnxn).getChannel();
+
+        channel.config().setOption(ChannelOption.TCP_NODELAY, settings.tcpNoDelay());
+
+        if (settings.writeHighWaterMark() > 0) {
+            channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(
+                    Math.min(settings.writeLowWaterMark(), settings.writeHighWaterMark()),
+                    settings.writeHighWaterMark()));
+        }
+    }
+}
@@ -27,6 +27,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
+import io.mishmash.stacks.quorum.server.osgi.impl.ConnectionStats;
+import io.mishmash.stacks.quorum.server.osgi.impl.ServerCnxnConfig;
+import io.mishmash.stacks.quorum.server.osgi.impl.TokenCacheMetrics;
 import javax.management.JMException;
 import javax.security.auth.callback.CallbackHandler;
 import javax.security.auth.login.AppConfigurationEntry;
@@ -47,6 +50,12 @@ public abstract class ServerCnxnFactory {
     private static final String ZOOKEEPER_MAX_CONNECTION = "zookeeper.maxCnxns";
     private static final String DIGEST_MD5_USER_PREFIX = "user_";
     public static final int ZOOKEEPER_MAX_CONNECTION_DEFAULT = 0;
+    // Not a class literal, loading it would require netty
+    private static final String NETTY_SERVER_CNXN_FACTORY = "org.apache.zookeeper.server.NettyServerCnxnFactory";
+
+    // Created instead of the stock factories, by name so that Netty is only loaded when used
+    private static final String CONFIGURED_NIO_SERVER_CNXN_FACTORY = "org.apache.zookeeper.server.ConfiguredNIOServerCnxnFactory";
+    private static final String CONFIGURED_NETTY_SERVER_CNXN_FACTORY = "org.apache.zookeeper.server.ConfiguredNettyServerCnxnFactory";
 
     private static final Logger LOG = LoggerFactory.getLogger(ServerCnxnFactory.class);
 
@@ -61,6 +70,9 @@ public abstract class ServerCnxnFactory {
     // total number of connections accepted by the ZooKeeper server
     protected int maxCnxns;
 
+    // Apply the configured channel options to new connections
+    private boolean tuneNettyChannels;
+
     // sessionMap is used by closeSession()
     final ConcurrentHashMap<Long, ServerCnxn> sessionMap = new ConcurrentHashMap<>();
 
@@ -151,6 +163,8 @@ public abstract class ServerCnxnFactory {
     public final void setZooKeeperServer(ZooKeeperServer zks) {
         this.zkServer = zks;
         if (zks != null) {
+            // The metrics provider is set up by now
+            TokenCacheMetrics.attach();
             if (secure) {
                 zks.setSecureServerCnxnFactory(this);
             } else {
@@ -164,12 +178,24 @@ public abstract class ServerCnxnFactory {
     public static ServerCnxnFactory createFactory() throws IOException {
         String serverCnxnFactoryName = System.getProperty(ZOOKEEPER_SERVER_CNXN_FACTORY);
         if (serverCnxnFactoryName == null) {
-            serverCnxnFactoryName = NIOServerCnxnFactory.class.getName();
+            serverCnxnFactoryName = ServerCnxnConfig.preferNetty()
+                    ? NETTY_SERVER_CNXN_FACTORY
+                    : NIOServerCnxnFactory.class.getName();
+        }
+        boolean netty = NETTY_SERVER_CNXN_FACTORY.equals(serverCnxnFactoryName);
+        String implName = serverCnxnFactoryName;
+        if (netty) {
+            ServerCnxnConfig.applyNettyDefaults();
+            implName = CONFIGURED_NETTY_SERVER_CNXN_FACTORY;
+        } else if (NIOServerCnxnFactory.class.getName().equals(serverCnxnFactoryName)) {
+            implName = CONFIGURED_NIO_SERVER_CNXN_FACTORY;
         }
         try {
-            ServerCnxnFactory serverCnxnFactory = (ServerCnxnFactory) Class.forName(serverCnxnFactoryName)
+            ServerCnxnFactory serverCnxnFactory = (ServerCnxnFactory) Class.forName(implName)
                                                                            .getDeclaredConstructor()
                                                                            .newInstance();
+            serverCnxnFactory.tuneNettyChannels = netty;
+            ConnectionStats.track(serverCnxnFactory);
             LOG.info("Using {} as server connection factory", serverCnxnFactoryName);
             return serverCnxnFactory;
         } catch (Exception e) {
@@ -196,6 +222,14 @@ public abstract class ServerCnxnFactory {
         return factory;
     }
 
+    /**
+     * The listen backlog to configure a factory with: the one from the server config,
+     * or, when that is not set (-1), the one from the quorum server connection settings.
+     */
+    static int listenBacklog(int backlog) {
+        return backlog == -1 ? ServerCnxnConfig.getSettings().backlog() : backlog;
+    }
+
     public abstract InetSocketAddress getLocalAddress();
 
     public abstract void resetAllConnectionStats();
@@ -204,10 +238,16 @@ public abstract class ServerCnxnFactory {
 
     private final ConcurrentHashMap<ServerCnxn, ConnectionBean> connectionBeans = new ConcurrentHashMap<>();
 
+    // Connections counted as registered, only those are counted when closed
+    private final Set<ServerCnxn> countedCnxns = ConcurrentHashMap.newKeySet();
+
     // Connection set is relied on heavily by four letter commands
     // Construct a ConcurrentHashSet using a ConcurrentHashMap
     protected final Set<ServerCnxn> cnxns = Collections.newSetFromMap(new ConcurrentHashMap<>());
     public void unregisterConnection(ServerCnxn serverCnxn) {
+        if (countedCnxns.remove(serverCnxn)) {
+            ConnectionStats.closed();
+        }
         ConnectionBean jmxConnectionBean = connectionBeans.remove(serverCnxn);
         if (jmxConnectionBean != null) {
             MBeanRegistry.getInstance().unregister(jmxConnectionBean);
@@ -215,6 +255,16 @@ public abstract class ServerCnxnFactory {
     }
 
     public void registerConnection(ServerCnxn serverCnxn) {
+        if (countedCnxns.add(serverCnxn)) {
+            ConnectionStats.registered();
+        }
+        if (tuneNettyChannels) {
+            NettyCnxnTuning.tune(serverCnxn);
+        }
+        // Aggregated stats only, per-connection details are available on demand
+        if (!ServerCnxnConfig.getSettings().isConnectionBeanEach()) {
+            return;
+        }
         if (zkServer != null) {
             ConnectionBean jmxConnectionBean = new ConnectionBean(serverCnxn, zkServer);
             try {
@@ -18,38 +18,58 @@
 
 package org.apache.zookeeper.server.auth;
 
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.zookeeper.server.ZooKeeperServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * The authentication providers known to the server, by scheme.
+ *
+ * Providers come from system properties and from OSGi
+ * {@link AuthenticationProvider} services, the latter taking precedence
+ * for the same scheme. When several services share a scheme, the one
+ * with the highest service ranking is used, and the next one takes over
+ * when it goes away. Changes publish a new immutable snapshot, so
+ * lookups on the request path never lock.
+ */
 public class ProviderRegistry {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProviderRegistry.class);
 
     public static final String AUTHPROVIDER_PROPERTY_PREFIX = "zookeeper.authProvider.";
 
-    private static boolean initialized = false;
-    private static final Map<String, AuthenticationProvider> authenticationProviders = new HashMap<>();
+    private static volatile boolean initialized = false;
+
+    // Guarded by ProviderRegistry.class
+    private static final Map<String, AuthenticationProvider> configuredProviders = new HashMap<>();
+    // Highest ranked first, the earlier added first among equal rankings
+    private static final Map<String, List<RankedProvider>> serviceProviders = new HashMap<>();
+
+    private static volatile Map<String, AuthenticationProvider> authenticationProviders = Map.of();
 
     //VisibleForTesting
     public static void reset() {
         synchronized (ProviderRegistry.class) {
             initialized = false;
-            authenticationProviders.clear();
+            // OSGi services stay until they are unregistered
+            configuredProviders.clear();
+            publish();
         }
     }
 
     public static void initialize() {
         synchronized (ProviderRegistry.class) {
             IPAuthenticationProvider ipp = new IPAuthenticationProvider();
-            authenticationProviders.put(ipp.getScheme(), ipp);
+            configuredProviders.put(ipp.getScheme(), ipp);
 
             if (DigestAuthenticationProvider.isEnabled()) {
                 DigestAuthenticationProvider digp = new DigestAuthenticationProvider();
-                authenticationProviders.put(digp.getScheme(), digp);
+                configuredProviders.put(digp.getScheme(), digp);
             }
 
             Enumeration<Object> en = System.getProperties().keys();
@@ -57,6 +77,7 @@ public class ProviderRegistry {
                 String k = (String) en.nextElement();
                 addOrUpdateProvider(k);
             }
+            publish();
             initialized = true;
         }
     }
@@ -68,7 +89,8 @@ public class ProviderRegistry {
                 try {
                     Class<?> c = ZooKeeperServer.class.getClassLoader().loadClass(className);
                     AuthenticationProvider ap = (AuthenticationProvider) c.getDeclaredConstructor().newInstance();
-                    authenticationProviders.put(ap.getScheme(), ap);
+                    configuredProviders.put(ap.getScheme(), ap);
+                    publish();
                 } catch (Exception e) {
                     LOG.warn("Problems loading {}", className, e);
                 }
@@ -78,7 +100,49 @@ public class ProviderRegistry {
 
     public static void addOrUpdateProvider(final AuthenticationProvider provider) {
         synchronized (ProviderRegistry.class) {
-            authenticationProviders.put(provider.getScheme(), provider);
+            configuredProviders.put(provider.getScheme(), provider);
+            publish();
+        }
+    }
+
+    private record RankedProvider(AuthenticationProvider provider, int ranking) {
+    }
+
+    /**
+     * Add a provider published as an OSGi service with the given
+     * service ranking, or update the ranking of one already added.
+     */
+    public static void addServiceProvider(final AuthenticationProvider provider, final int ranking) {
+        synchronized (ProviderRegistry.class) {
+            List<RankedProvider> ranked = serviceProviders.computeIfAbsent(provider.getScheme(), k -> new ArrayList<>());
+            ranked.removeIf(r -> r.provider() == provider);
+            int at = 0;
+            while (at < ranked.size() && ranked.get(at).ranking() >= ranking) {
+                at++;
+            }
+            ranked.add(at, new RankedProvider(provider, ranking));
+            if (ranked.size() > 1) {
+                LOG.info("{} authentication provider services for scheme {}, using the highest ranked",
+                        ranked.size(), provider.getScheme());
+            }
+            publish();
+        }
+    }
+
+    /**
+     * Remove a provider published as an OSGi service, the next ranked
+     * one for its scheme, if any, takes over.
+     */
+    public static void removeServiceProvider(final AuthenticationProvider provider) {
+        synchronized (ProviderRegistry.class) {
+            List<RankedProvider> ranked = serviceProviders.get(provider.getScheme());
+            if (ranked == null || !ranked.removeIf(r -> r.provider() == provider)) {
+                return;
+            }
+            if (ranked.isEmpty()) {
+                serviceProviders.remove(provider.getScheme());
+            }
+            publish();
         }
     }
 
@@ -88,13 +152,20 @@ public class ProviderRegistry {
 
     public static AuthenticationProvider getProvider(String scheme) {
         if (!initialized) {
-            initialize();
+            synchronized (ProviderRegistry.class) {
+                if (!initialized) {
+                    initialize();
+                }
+            }
         }
         return authenticationProviders.get(scheme);
     }
 
     public static void removeProvider(String scheme) {
-        authenticationProviders.remove(scheme);
+        synchronized (ProviderRegistry.class) {
+            configuredProviders.remove(scheme);
+            publish();
+        }
     }
 
     public static String listProviders() {
@@ -105,4 +176,11 @@ public class ProviderRegistry {
         return sb.toString();
     }
 
+    // Call with the lock held
+    private static void publish() {
+        Map<String, AuthenticationProvider> providers = new HashMap<>(configuredProviders);
+        serviceProviders.forEach((scheme, ranked) -> providers.put(scheme, ranked.get(0).provider()));
+        authenticationProviders = Map.copyOf(providers);
+    }
+
 }
@@ -18,13 +18,22 @@
 
 package org.apache.zookeeper.server.watch;
 
+import io.mishmash.stacks.quorum.server.osgi.impl.WatchManagersTracker;
+import io.mishmash.stacks.quorum.server.watch.CompactWatchManager;
 import java.io.IOException;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A factory used to produce the actual watch manager based on the
  * zookeeper.watchManagerName option.
+ *
+ * The option may name a watch manager published as an OSGi service,
+ * or a class to instantiate. Short names of the watch managers shipped
+ * with this bundle also resolve to their classes when the OSGi service
+ * is not (yet) available, as when the server starts before the service
+ * tracker is active.
  */
 public class WatchManagerFactory {
 
@@ -32,11 +41,20 @@ public class WatchManagerFactory {
 
     public static final String ZOOKEEPER_WATCH_MANAGER_NAME = "zookeeper.watchManagerName";
 
+    private static final Map<String, String> BUILTIN = Map.of(
+            "compact", CompactWatchManager.class.getName());
+
     public static IWatchManager createWatchManager() throws IOException {
         String watchManagerName = System.getProperty(ZOOKEEPER_WATCH_MANAGER_NAME);
         if (watchManagerName == null) {
             watchManagerName = WatchManager.class.getName();
         }
+        IWatchManager osgiWatchManager = WatchManagersTracker.create(watchManagerName);
+        if (osgiWatchManager != null) {
+            LOG.info("Using {} OSGi service as watch manager", watchManagerName);
+            return osgiWatchManager;
+        }
+        watchManagerName = BUILTIN.getOrDefault(watchManagerName, watchManagerName);
         try {
             IWatchManager watchManager = (IWatchManager) Class.forName(watchManagerName).getConstructor().newInstance();
             LOG.info("Using {} as watch manager", watchManagerName);
@@ -263,7 +263,9 @@ public class AzureLoginModule extends BaseLoginModule {
         @Override
         protected CompletableFuture<SignedJWT> prepareAction() {
             return CompletableFuture
-                    .supplyAsync(AzureLoginModule.this::newAccessToken)
+                    .supplyAsync(
+                            AzureLoginModule.this::newAccessToken,
+                            getExecutor())
                     .thenApply(t -> {
                         try {
                             return SignedJWT.parse(t.getToken());
@@ -44,7 +44,7 @@ public class MemoizedJWKSet extends MemoizableAction<JWKSet> {
     private static final Logger LOG
             = Logger.getLogger(MemoizedJWKSet.class.getName());
 
-    private JWKSet jwks;
+    private volatile JWKSet jwks;
     private URL jwksUrl;
 
     public MemoizedJWKSet(final URL keysUrl) {
@@ -112,7 +112,7 @@ public class MemoizedJWKSet extends MemoizableAction<JWKSet> {
 
                 res.completeExceptionally(e);
             }
-        });
+        }, getExecutor());
 
         return res;
     }
@@ -39,7 +39,7 @@ public abstract class MemoizedSignedJWT extends MemoizableAction<SignedJWT> {
     private static final Logger LOG =
             Logger.getLogger(MemoizedSignedJWT.class.getName());
 
-    private SignedJWT jwt;
+    private volatile SignedJWT jwt;
     private JWTClaimsSetVerifier<? extends SecurityContext> verifier;
 
     public MemoizedSignedJWT() {